@@ -0,0 +1,89 @@
+package predatorprey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time the act method of each species. One operation makes every
+ * actor of the species act once in a freshly populated field, the
+ * same field every time, so the number of actors is fixed for each
+ * species. Ageing and hunger are not applied first.
+ *
+ * Acting changes the field, so each operation is timed on its own,
+ * as one iteration, and the field is populated again between
+ * iterations, outside the timing.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1000)
+@Measurement(iterations = 200)
+@Fork(1)
+public class ActBenchmark
+{
+    @Param({"Plant", "Mouse", "Cricket", "Snake", "Scorpion", "Eagle"})
+    public String species;
+
+    private Simulator simulator;
+    private Field field;
+    private final List<Actor> actors = new ArrayList<>();
+    private final List<Actor> newActors = new ArrayList<>();
+
+    /**
+     * Create the simulation.
+     */
+    @Setup(Level.Trial)
+    public void create()
+    {
+        simulator = new Simulator(80, 120, false);
+        field = Sizes.fieldOf(simulator);
+    }
+
+    /**
+     * Populate the field again and gather the actors of the species.
+     */
+    @Setup(Level.Iteration)
+    public void populate()
+    {
+        simulator.setSeed(Sizes.SEED);
+        actors.clear();
+        newActors.clear();
+        for(int row = 0; row < field.getDepth(); row++) {
+            for(int col = 0; col < field.getWidth(); col++) {
+                Object occupant = field.getObjectAt(row, col);
+                if(occupant instanceof Actor
+                   && ((Actor) occupant).getSpecies().getName().equals(species)) {
+                    actors.add((Actor) occupant);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Actor> act()
+    {
+        for(int i = 0; i < actors.size(); i++) {
+            Actor actor = actors.get(i);
+            if(actor.isAlive()) {
+                actor.act(newActors);
+            }
+        }
+        return newActors;
+    }
+}
@@ -0,0 +1,45 @@
+package predatorprey;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with the usual JMH command line, always adding
+ * the GC profiler so that every result comes with its allocation
+ * rate (gc.alloc.rate.norm is the bytes allocated per operation).
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class BenchmarkMain
+{
+    /**
+     * Run the benchmarks.
+     * @param args JMH command line options, such as a benchmark name.
+     * @throws IOException If the help cannot be shown.
+     * @throws RunnerException If a benchmark fails.
+     * @throws CommandLineOptionException If the options are not valid.
+     */
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if(options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+        Runner runner = new Runner(new OptionsBuilder()
+                                   .parent(options)
+                                   .addProfiler(GCProfiler.class)
+                                   .build());
+        if(options.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
@@ -0,0 +1,83 @@
+package predatorprey;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time the Field's searches of the cells around a location, on a
+ * populated field. Each call looks around a different cell, walking
+ * the field in a fixed order.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldBenchmark
+{
+    // A prime stride, so the cells are not visited in order.
+    private static final int STRIDE = 7919;
+
+    private Field field;
+    private int cellCount;
+    private int next;
+
+    /**
+     * Populate a field and run it for a few steps.
+     */
+    @Setup
+    public void create()
+    {
+        Simulator simulator = new Simulator(400, 400, false);
+        field = Sizes.fieldOf(simulator);
+        simulator.simulate(20);
+        cellCount = field.getDepth() * field.getWidth();
+    }
+
+    /**
+     * @return The next location looked around.
+     */
+    private Location nextLocation()
+    {
+        next = (next + STRIDE) % cellCount;
+        return field.getLocationAt(next);
+    }
+
+    @Benchmark
+    public void getFreeAdjacentLocations(Blackhole blackhole)
+    {
+        blackhole.consume(field.getFreeAdjacentLocations(nextLocation()));
+    }
+
+    @Benchmark
+    public Location freeAdjacentLocation()
+    {
+        return field.freeAdjacentLocation(nextLocation());
+    }
+
+    @Benchmark
+    public int countFreeAdjacent()
+    {
+        return field.countFreeAdjacent(nextLocation());
+    }
+
+    @Benchmark
+    public void adjacentLocations(Blackhole blackhole)
+    {
+        blackhole.consume(field.adjacentLocations(nextLocation()));
+    }
+}
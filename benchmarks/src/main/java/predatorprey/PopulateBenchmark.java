@@ -0,0 +1,89 @@
+package predatorprey;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time filling a field: populating it at the start of a run, and
+ * plants growing back after rain. Regrowth is timed on a freshly
+ * populated field each time, whatever the weather. As regrowth fills
+ * the field, each regrowth is timed on its own, as one iteration,
+ * and the field is populated again between iterations, outside the
+ * timing.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulateBenchmark
+{
+    /**
+     * A simulation of the chosen size.
+     */
+    @State(Scope.Thread)
+    public static class Run
+    {
+        @Param({"80x120", "400x400"})
+        public String size;
+
+        Simulator simulator;
+
+        /**
+         * Create the simulation.
+         */
+        @Setup(Level.Trial)
+        public void create()
+        {
+            simulator = new Simulator(Sizes.depth(size), Sizes.width(size), false);
+        }
+    }
+
+    /**
+     * A simulation populated again before each iteration.
+     */
+    @State(Scope.Thread)
+    public static class Populated extends Run
+    {
+        /**
+         * Populate the field again.
+         */
+        @Setup(Level.Iteration)
+        public void populate()
+        {
+            simulator.setSeed(Sizes.SEED);
+        }
+    }
+
+    @Benchmark
+    public Simulator populate(Run run)
+    {
+        // Starting the run again clears and populates the field.
+        run.simulator.reset();
+        return run.simulator;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1000)
+    @Measurement(iterations = 200)
+    public Simulator plantRegrowth(Populated run)
+    {
+        run.simulator.growPlants();
+        return run.simulator;
+    }
+}
@@ -0,0 +1,90 @@
+package predatorprey;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time the work SimulatorView.showStatus and its render timer do
+ * for each frame, without a window: taking a snapshot of the field
+ * on the simulation's thread, and drawing a snapshot into the image,
+ * either every cell or only the cells one step changed.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark
+{
+    @Param({"80x120", "400x400", "1000x1000"})
+    public String size;
+
+    private Field field;
+    private FieldRenderer renderer;
+    private FieldSnapshot snapshot;
+    private FieldSnapshot whole;
+    private FieldSnapshot oneStep;
+
+    /**
+     * Run a simulation for a few steps, and take a snapshot of every
+     * cell and one of the changes made by a single step.
+     */
+    @Setup
+    public void create()
+    {
+        int depth = Sizes.depth(size);
+        int width = Sizes.width(size);
+        Simulator simulator = new Simulator(depth, width, false);
+        field = Sizes.fieldOf(simulator);
+        // As an attached view would, so one step's changes are kept.
+        field.setTrackingChanges(true);
+        simulator.simulate(20);
+        renderer = new FieldRenderer(depth, width);
+        renderer.setColor(Species.PLANT, Color.GREEN);
+        renderer.setColor(Species.MOUSE, Color.BLUE);
+        renderer.setColor(Species.EAGLE, Color.RED);
+        snapshot = new FieldSnapshot(depth, width);
+        whole = new FieldSnapshot(depth, width);
+        whole.capture(simulator.getSteps(), field, true, WeatherState.SUN);
+        whole.setRedrawAll();
+        simulator.simulateOneStep();
+        oneStep = new FieldSnapshot(depth, width);
+        oneStep.capture(simulator.getSteps(), field, true, WeatherState.SUN);
+    }
+
+    @Benchmark
+    public FieldSnapshot capture()
+    {
+        snapshot.capture(0, field, true, WeatherState.SUN);
+        return snapshot;
+    }
+
+    @Benchmark
+    public FieldRenderer drawAll()
+    {
+        renderer.draw(whole);
+        return renderer;
+    }
+
+    @Benchmark
+    public FieldRenderer drawOneStep()
+    {
+        renderer.draw(oneStep);
+        return renderer;
+    }
+}
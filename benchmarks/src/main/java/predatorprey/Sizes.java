@@ -0,0 +1,47 @@
+package predatorprey;
+
+/**
+ * Helpers shared by the benchmarks.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+class Sizes
+{
+    // The seed every benchmark's simulation starts from.
+    static final long SEED = 1111;
+
+    /**
+     * Read the depth from a field size such as "80x120".
+     * @param size The size, depth by width.
+     * @return The depth.
+     */
+    static int depth(String size)
+    {
+        return Integer.parseInt(size.substring(0, size.indexOf('x')));
+    }
+
+    /**
+     * Read the width from a field size such as "80x120".
+     * @param size The size, depth by width.
+     * @return The width.
+     */
+    static int width(String size)
+    {
+        return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+    }
+
+    /**
+     * Return the field a simulation is running in, as observers see it.
+     * @param simulator The simulation.
+     * @return Its field.
+     */
+    static Field fieldOf(Simulator simulator)
+    {
+        Field[] field = new Field[1];
+        simulator.addObserver((step, observed, isDay, weather) -> field[0] = observed);
+        // Setting the seed starts the run again and tells the observers.
+        simulator.setSeed(SEED);
+        return field[0];
+    }
+}
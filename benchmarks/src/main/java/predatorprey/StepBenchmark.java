@@ -0,0 +1,79 @@
+package predatorprey;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time one full step of the simulation, at several field sizes and
+ * starting densities. The density scales the creation probability
+ * of every species. Each iteration starts the same run again and
+ * lets it settle for a few steps first.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepBenchmark
+{
+    // The steps run before each iteration is measured.
+    private static final int SETTLE_STEPS = 20;
+
+    @Param({"80x120", "400x400", "1000x1000"})
+    public String size;
+
+    @Param({"0.5", "1", "2"})
+    public double density;
+
+    private Simulator simulator;
+
+    /**
+     * Create the simulation with the chosen density.
+     */
+    @Setup(Level.Trial)
+    public void create()
+    {
+        SimulationParameters parameters = new SimulationParameters();
+        for(int id = 1; id <= Species.count(); id++) {
+            Species species = Species.byId(id);
+            if(species.getKind() != Species.KIND_OTHER) {
+                double probability = parameters.getCreationProbability(species);
+                parameters.setCreationProbability(species, probability * density);
+            }
+        }
+        simulator = new Simulator(Sizes.depth(size), Sizes.width(size), false, parameters);
+    }
+
+    /**
+     * Start the run again and let it settle.
+     */
+    @Setup(Level.Iteration)
+    public void restart()
+    {
+        simulator.setSeed(Sizes.SEED);
+        for(int step = 0; step < SETTLE_STEPS; step++) {
+            simulator.simulateOneStep();
+        }
+    }
+
+    @Benchmark
+    public void simulateOneStep()
+    {
+        simulator.simulateOneStep();
+    }
+}
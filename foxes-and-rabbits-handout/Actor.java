@@ -1,3 +1,6 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -22,5 +25,41 @@ public interface Actor
      */
     boolean isAlive();
 
+    /**
+     * Indicate that the actor is no longer alive, removing it
+     * from the field.
+     * @param cause Why the actor died.
+     */
+    void setDead(DeathCause cause);
+
     boolean getIsNocturnal();
+
+    /**
+     * Return the actor's location.
+     * @return The actor's location, or null once it is dead.
+     */
+    Location getLocation();
+
+    /**
+     * Return the species of the actor.
+     * @return The actor's species.
+     */
+    Species getSpecies();
+
+    /**
+     * Write the actor's changing state, such as its age, so it can
+     * be saved in a checkpoint. The species and location are saved
+     * by the caller.
+     * @param out Where to write the state.
+     * @throws IOException If the state cannot be written.
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    /**
+     * Read back state written by writeState, replacing the actor's
+     * own.
+     * @param in Where to read the state from.
+     * @throws IOException If the state cannot be read.
+     */
+    void readState(DataInput in) throws IOException;
 }
\ No newline at end of file
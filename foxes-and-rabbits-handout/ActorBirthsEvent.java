@@ -0,0 +1,97 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * A periodic Flight Recorder event giving the number of actors of a
+ * species born in every simulation since the last such event, so
+ * that births cost a count rather than an event each. One event is
+ * recorded per species born in the period. It is disabled unless a
+ * recording enables it, and its period is a second unless the
+ * recording sets it, for example "predatorprey.ActorBirths#period=10 s".
+ * The recorder is only asked to poll the counts once it has been
+ * started, so runs that never record do not register the poll.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@Name("predatorprey.ActorBirths")
+@Label("Actor Births")
+@Category("Predator Prey")
+@Description("The actors of a species born since the last period")
+@Enabled(false)
+@StackTrace(false)
+@Period("1 s")
+public class ActorBirthsEvent extends jdk.jfr.Event
+{
+    // The births not yet recorded, indexed by species id.
+    private static final AtomicLongArray births = new AtomicLongArray(Species.MAX_SPECIES);
+    // The event's type, or null until the recorder has started.
+    private static volatile EventType type;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder)
+            {
+                register();
+            }
+        });
+    }
+
+    @Label("Species")
+    String species;
+
+    @Label("Births")
+    long count;
+
+    /**
+     * Count the actors born in a step, if the event is enabled.
+     * @param newActors The actors born.
+     */
+    static void count(List<Actor> newActors)
+    {
+        EventType type = ActorBirthsEvent.type;
+        if(type == null || !type.isEnabled()) {
+            return;
+        }
+        for(int i = 0; i < newActors.size(); i++) {
+            births.incrementAndGet(newActors.get(i).getSpecies().getId());
+        }
+    }
+
+    /**
+     * Record the births counted since the last period.
+     */
+    private static void emit()
+    {
+        for(int id = 1; id <= Species.count(); id++) {
+            long count = births.getAndSet(id, 0);
+            if(count > 0) {
+                ActorBirthsEvent event = new ActorBirthsEvent();
+                event.species = Species.byId(id).getName();
+                event.count = count;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Have the recorder ask for the counts every period. This is done
+     * when the recorder starts, or at once if it already has.
+     */
+    private static void register()
+    {
+        FlightRecorder.addPeriodicEvent(ActorBirthsEvent.class, ActorBirthsEvent::emit);
+        type = EventType.getEventType(ActorBirthsEvent.class);
+    }
+}
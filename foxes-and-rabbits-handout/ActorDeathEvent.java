@@ -0,0 +1,61 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for a sample of the deaths in a simulation,
+ * recording the species and the cause. It is disabled unless a
+ * recording enables it. Only one death in every sampleInterval is
+ * recorded, 100 unless the recording sets it, for example
+ * "predatorprey.ActorDeath#sampleInterval=10".
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@Name("predatorprey.ActorDeath")
+@Label("Actor Death")
+@Category("Predator Prey")
+@Description("A sampled death of an actor")
+@Enabled(false)
+@StackTrace(false)
+public class ActorDeathEvent extends jdk.jfr.Event
+{
+    @Label("Species")
+    String species;
+
+    @Label("Cause")
+    String cause;
+
+    /**
+     * Decide whether this death is one of the sample.
+     * @param setting The sample interval set by the recordings.
+     * @return true if the death is to be recorded.
+     */
+    @Name("sampleInterval")
+    @Label("Sample Interval")
+    @Description("Record one death in this many")
+    @SettingDefinition
+    protected boolean sampleInterval(SampleSetting setting)
+    {
+        return setting.sample();
+    }
+
+    /**
+     * Record a death, if the event is enabled and it is sampled.
+     * @param actor The actor that died.
+     * @param cause Why it died.
+     */
+    static void report(Actor actor, DeathCause cause)
+    {
+        ActorDeathEvent event = new ActorDeathEvent();
+        if(event.isEnabled()) {
+            event.species = actor.getSpecies().getName();
+            event.cause = cause.name();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * Create actors of a species, such as the constructor of Animal
+ * or Plant.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface ActorFactory
+{
+    /**
+     * Create an actor and place it in the field.
+     * @param species The species of the actor.
+     * @param randomAge Whether the actor starts with a random age,
+     *                  rather than as a newborn.
+     * @param field The field to place it in.
+     * @param location Where to place it.
+     * @return The new actor.
+     */
+    Actor create(Species species, boolean randomAge, Field field, Location location);
+}
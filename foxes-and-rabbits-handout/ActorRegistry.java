@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+/**
+ * Hold the actors taking part in a simulation in a growable array.
+ * Dead actors are not removed one at a time while the actors are
+ * being stepped, which would shift the rest of the array on every
+ * death. Instead they are swept out in a single pass at the end of
+ * the step. The sweep keeps the survivors in their original order,
+ * so a run with a fixed random seed always steps the actors in the
+ * same order.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class ActorRegistry
+{
+    // The initial capacity of a registry.
+    private static final int INITIAL_CAPACITY = 64;
+
+    // The actors, in the order they are stepped.
+    private Actor[] actors;
+    // How many entries of the array are in use.
+    private int size;
+
+    /**
+     * Create an empty registry.
+     */
+    public ActorRegistry()
+    {
+        actors = new Actor[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * @return The number of actors in the registry.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Return the actor at the given position.
+     * @param index The position, from 0 to size() - 1.
+     * @return The actor at that position.
+     */
+    public Actor get(int index)
+    {
+        return actors[index];
+    }
+
+    /**
+     * Add an actor to the end of the registry.
+     * @param actor The actor to add.
+     */
+    public void add(Actor actor)
+    {
+        ensureCapacity(size + 1);
+        actors[size++] = actor;
+    }
+
+    /**
+     * Remove every actor that is no longer alive, keeping the
+     * order of the rest.
+     */
+    public void removeDead()
+    {
+        int kept = 0;
+        for(int i = 0; i < size; i++) {
+            Actor actor = actors[i];
+            if(actor.isAlive()) {
+                actors[kept++] = actor;
+            }
+        }
+        // Let the removed actors be garbage collected.
+        Arrays.fill(actors, kept, size, null);
+        size = kept;
+    }
+
+    /**
+     * Remove every actor.
+     */
+    public void clear()
+    {
+        Arrays.fill(actors, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Make sure the array can hold the given number of actors,
+     * at least doubling it when it has to grow.
+     * @param capacity The number of actors to make room for.
+     */
+    private void ensureCapacity(int capacity)
+    {
+        if(capacity > actors.length) {
+            actors = Arrays.copyOf(actors, Math.max(capacity, actors.length * 2));
+        }
+    }
+}
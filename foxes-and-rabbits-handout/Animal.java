@@ -1,81 +1,130 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Random;
 
 /**
- * An abstarct class representing shared characteristics of animals.
+ * An animal of any species. Animals age, move, eat, breed, die and
+ * spread disease, and everything that differs between species (what
+ * they eat, when they are active and their life history) is data
+ * held by their Species and the simulation's parameters, so there is
+ * one class for them all.
  * 
  * @author Benedict Morley and Laurence Andrews
  * @version 2016.02.29 (2)
  */
-public abstract class Animal implements Actor
+public final class Animal implements Actor
 
 {
     private static final Random rand = Randomizer.getRandom();
 
-    // Whether the animal is alive or not.
-    private boolean alive;
+    private static final double GENDER_PROBABILITY = 0.5;
 
-    // Whether the animal is male.
-    private boolean isMale;
+    private static final double DISEASED_PROBABILITY = 0.005;
 
-    private boolean drawable;
+    // Accepts the first neighbouring cell holding an animal.
+    private static final NeighbourVisitor<Field> ANIMAL = (field, row, col) -> {
+        int kind = field.getKindAt(row, col);
+        return kind == Species.KIND_PREY || kind == Species.KIND_PREDATOR;
+    };
 
-    private boolean isDiseased;
+    // Accepts the first neighbouring cell holding an animal of the
+    // same species. Only live actors are kept in the field.
+    private static final NeighbourVisitor<Animal> MATE =
+        (animal, row, col) -> animal.field.getSpeciesIdAt(row, col) == animal.species.getId();
 
-    private int diseaseCount;
+    // Eats the first edible neighbour found.
+    private static final NeighbourVisitor<Animal> FOOD = Animal::eatAt;
 
-    private static final double GENDER_PROBABILITY = 0.5;
+    // Scores each neighbour by the food value it would give.
+    private static final NeighbourScorer<Animal> MEAL = Animal::mealAt;
 
-    private static final double DISEASED_PROBABILITY = 0.005;
+    // The animal's species.
+    private final Species species;
 
-    // The animal's field.
+    // The animal's field, or null once it is dead.
     private Field field;
 
-    // The animal's position in the field.
-    private Location location;
-
-    private List<Location> freeAdjacentLocations;
+    // The parameters its life history is taken from.
+    private final SimulationParameters parameters;
 
-    private List<Object> nearbyPredators;
+    // The store holding the animal's age, food level, disease,
+    // gender and position.
+    private final AnimalStore store;
 
-    private List<Object> nearbyPrey;
+    // The animal's slot in the store.
+    private final int slot;
 
     /**
-     * Create a new animal with a random age at location in field as well as giving it a gender and a 
-     * chance to be diseased.
+     * Create an animal. An animal can be created as a new born (age
+     * zero and not hungry) or with a random age and food level. It is
+     * given a gender and a chance to be diseased.
      * 
+     * @param species The animal's species.
+     * @param randomAge If true, the animal will have random age and hunger level.
      * @param field The field currently occupied.
      * @param location The location within the field.
-     * @param randomAge The age of the animal
      */
-    public Animal(boolean randomAge, Field field, Location location)
+    public Animal(Species species, boolean randomAge, Field field, Location location)
     {
-        alive = true;
+        this.species = species;
         this.field = field;
-        setLocation(location);
-        diseaseCount = 0;
-
-        freeAdjacentLocations = new ArrayList<>();
-        nearbyPredators = new ArrayList<Object>();
-        nearbyPrey = new ArrayList<Object>();
+        parameters = field.getParameters();
+        store = field.getAnimals();
+        slot = store.allocate(this, getSpecies().getId(), getMaxAge());
+        store.setCell(slot, field.indexOf(location));
+        field.place(this, location);
+        field.getListener().born(this, location);
 
         int maleOrFemale = rand.nextInt(1);
         if (maleOrFemale < GENDER_PROBABILITY) {
-            isMale = true;
+            store.setMale(slot, true);
         }
 
         double diseasedOrHealthy = rand.nextDouble();
         if (diseasedOrHealthy < DISEASED_PROBABILITY) {
-            isDiseased = true;
+            store.setDiseased(slot, true);
+        }
+
+        if (randomAge) {
+            setAge(rand.nextInt(getMaxAge()));
+            setFoodLevel(rand.nextInt(getFoodValue()));
+        } else {
+            setAge(0);
+            setFoodLevel(getFoodValue());
         }
     }
 
     /**
-     * @param newActors The newly created entities
+     * Make the animal act - that is: make it do whatever it
+     * wants/needs to do. Ageing, hunger and disease have already
+     * been applied to every animal of the group by the field's animal
+     * store, and only the survivors act.
+     * @param newActors A list to receive newly born animals.
      */
-    abstract public void act(List<Actor> newActors);
+    public void act(List<Actor> newActors)
+    {
+        if(isAlive()) {
+            giveBirth(newActors);
+            if (diseasedNearby()) {
+                setIsDiseased();
+            }
+            // Move towards a source of food if found.
+            Location newLocation = findFood();
+            if(newLocation == null) { 
+                // No food found - try to move to a free location.
+                newLocation = field.freeAdjacentLocation(getLocation());
+            }
+            // See if it was possible to move.
+            if(newLocation != null) {
+                setLocation(newLocation);
+            } else {
+                // Overcrowding.
+                setDead(DeathCause.OVERCROWDING);
+            }
+        }
+    }
 
     /**
      * Check whether the animal is alive or not.
@@ -83,30 +132,36 @@ public abstract class Animal implements Actor
      */
     public boolean isAlive()
     {
-        return alive;
+        return field != null;
     }
 
     /**
      * Indicate that the animal is no longer alive.
      * It is removed from the field.
+     * @param cause Why the animal died.
      */
-    protected void setDead()
+    public void setDead(DeathCause cause)
     {
-        alive = false;
-        if(location != null) {
+        if(field != null) {
+            Location location = getLocation();
+            store.markDead(slot);
             field.clear(location);
-            location = null;
+            field.getListener().died(this, location, cause);
+            ActorDeathEvent.report(this, cause);
             field = null;
         }
     }
 
     /**
      * Return the animal's location.
-     * @return The animal's location.
+     * @return The animal's location, or null once it is dead.
      */
-    protected Location getLocation()
+    public Location getLocation()
     {
-        return location;
+        if(field == null) {
+            return null;
+        }
+        return field.getLocationAt(store.getCell(slot));
     }
 
     /**
@@ -115,11 +170,17 @@ public abstract class Animal implements Actor
      */
     protected void setLocation(Location newLocation)
     {
-        if(location != null) {
-            field.clear(location);
+        Location oldLocation = getLocation();
+        if(field.getObjectAt(oldLocation) == this) {
+            field.clear(oldLocation);
+        }
+        else {
+            // Another actor has been placed over this one.
+            oldLocation = null;
         }
-        location = newLocation;
+        store.setCell(slot, field.indexOf(newLocation));
         field.place(this, newLocation);
+        field.getListener().moved(this, oldLocation, newLocation);
     }
 
     /**
@@ -132,58 +193,92 @@ public abstract class Animal implements Actor
     }
 
     /**
-     * Check for any surrounding objects.
-     * @return boolean value of empty surroundings
+     * Check whether or not this animal is to give birth at this step.
+     * New births will be made into free adjacent locations.
+     * @param newActors A list to return newly born animals.
      */
-    protected boolean surroundingsEmpty()
+    private void giveBirth(List<Actor> newActors)
     {
-        freeAdjacentLocations = field.getFreeAdjacentLocations(location);
-        return freeAdjacentLocations.size() <= 0;
+        // New animals are born into adjacent locations.
+        // Each one takes the next free adjacent location.
+        int births = breed();
+        if (mateNearby()) {
+            for(int b = 0; b < births; b++) {
+                Location loc = field.freeAdjacentLocation(getLocation());
+                if(loc == null) {
+                    break;
+                }
+                newActors.add(species.createActor(false, field, loc));
+            }
+        }
     }
 
     /**
-     * Check for any surrounding predators of the specific object.
-     * @return A list of objects, all of which will be predators
+     * Check whether there are any nearby animals of the same species
+     * and the opposite gender.
+     * @return boolean of any nearby mates.
      */
-    protected List<Object> predatorsNearby()
-    {      
-        if (freeAdjacentLocations.size() > 0) {
-            for (int i = 0; i < freeAdjacentLocations.size(); i++) {
-                if (field.getObjectAt(freeAdjacentLocations.get(i)) instanceof Predator) {
-                    nearbyPredators.add(field.getObjectAt(freeAdjacentLocations.get(i)));
-                }
-            }
+    private boolean mateNearby()
+    {   
+        if(!getIsMale()) {
+            return false;
         }
-        return nearbyPredators;
+        return field.findAdjacent(getLocation(), this, MATE) != null;
     }
 
     /**
-     * Check for any surrounding prey of the specific object.
-     * @return A list of objects, all of which will be prey.
+     * Look for something the animal eats in the neighbouring cells,
+     * and eat the one the feeding policy chooses. Either way the
+     * neighbours are looked at only once.
+     * @return Location of the food eaten, or null if none was found.
      */
-    protected List<Object> preyNearby()
+    private Location findFood()
     {
-        if (freeAdjacentLocations.size() > 0) {
-            for (int i = 0; i < freeAdjacentLocations.size(); i++) {
-                if (field.getObjectAt(freeAdjacentLocations.get(i)) instanceof Prey) {
-                    nearbyPrey.add(field.getObjectAt(freeAdjacentLocations.get(i)));
-                }
-            }
+        if(parameters.getFeedingPolicy() == FeedingPolicy.FIRST_FOUND) {
+            return field.findAdjacent(getLocation(), this, FOOD);
+        }
+        Location meal = field.findBestAdjacent(getLocation(), this, MEAL);
+        if(meal != null) {
+            eatAt(meal.getRow(), meal.getCol());
         }
-        return nearbyPrey;
+        return meal;
     }
 
     /**
-     * Abstract give birth
-     * @param newActors The newly created entities
+     * Score a neighbouring cell as a meal.
+     * @param row The row of the neighbouring cell.
+     * @param col The column of the neighbouring cell.
+     * @return The food value of what is there, or 0 if the animal
+     *         does not eat it.
      */
-    abstract void giveBirth(List<Actor> newActors);
+    private int mealAt(int row, int col)
+    {
+        int id = field.getSpeciesIdAt(row, col);
+        if(parameters.eats(species.getId(), id)) {
+            // A meal is worth having even if its food value is zero.
+            return Math.max(parameters.getFoodValue(id), 1);
+        }
+        return 0;
+    }
 
     /**
-     * Abstract mate nearby
-     * @return boolean of mate presence.
+     * Eat whatever is in the given neighbouring cell, if the animal can.
+     * @param row The row of the neighbouring cell.
+     * @param col The column of the neighbouring cell.
+     * @return true if the animal ate there.
      */
-    abstract boolean mateNearby();
+    private boolean eatAt(int row, int col)
+    {
+        int id = field.getSpeciesIdAt(row, col);
+        if(parameters.eats(species.getId(), id)) {
+            Actor food = (Actor) field.getObjectAt(row, col);
+            field.getListener().killed(this, food);
+            food.setDead(DeathCause.EATEN);
+            setFoodLevel(parameters.getFoodValue(id));
+            return true;
+        }
+        return false;
+    }
 
     /**
      * Check for any nearby objects that have a disease status of true.
@@ -191,17 +286,11 @@ public abstract class Animal implements Actor
      */
     boolean diseasedNearby()
     {   
-        Field field = getField();
-        List<Location> adjacent = field.adjacentLocations(getLocation());
-        Iterator<Location> it = adjacent.iterator();
-        while(it.hasNext()) {
-            Location location = it.next();
-            Object object = field.getObjectAt(location);
-            if(object instanceof Animal && getIsDiseased()) {
-                return true;
-            }
+        if(!getIsDiseased()) {
+            return false;
         }
-        return false;        
+        Field field = getField();
+        return field.findAdjacent(getLocation(), field, ANIMAL) != null;
     }
 
     /**
@@ -210,22 +299,24 @@ public abstract class Animal implements Actor
     protected void setIsDiseased() {
         double diseasedOrHealthy = rand.nextDouble();
         if (diseasedOrHealthy < DISEASED_PROBABILITY) {
-            isDiseased = true;
+            store.setDiseased(slot, true);
         }
     }
 
     /**
-     * Abstract method to get the diseased status of an animal.
+     * Get the diseased status of an animal.
      * @return boolean of disease status.
      */
-    protected abstract boolean getIsDiseased();
+    protected boolean getIsDiseased() {
+        return store.isDiseased(slot);
+    }
 
     /**
      * Get the gender of the current animal.
      * @return boolean animal's gender
      */
     protected boolean getIsMale() {
-        return isMale;
+        return store.isMale(slot);
     }
 
     /**
@@ -250,21 +341,12 @@ public abstract class Animal implements Actor
         return getAge() >= getBreedingAge();
     }
 
-    /**
-     * If diesased then increment the disease count by 1.
-     */
-    public void incrementDiseaseCount() {
-        if (getIsDiseased()) {
-            diseaseCount++;
-        }
-    }
-
     /**
      * Get the current disease count of an animal.
      * @return int the current disease count
      */
     public int getDiseaseCount() {
-        return diseaseCount;
+        return store.getDiseaseCount(slot);
     }
 
     /**
@@ -277,56 +359,120 @@ public abstract class Animal implements Actor
     }
 
     /**
-     * Abstract method to get the breeding age of the animal.
+     * Get the breeding age of the animal.
      * @return int The animals breeding age.
      */
-    abstract int getBreedingAge();
+    protected int getBreedingAge()
+    {
+        return parameters.getBreedingAge(getSpecies());
+    }
 
     /**
-     * Abstract method to get the max age of the animal.
+     * Get the max age of the animal.
      * @return int The max age of the animal.
      */
-    abstract int getMaxAge();
+    protected int getMaxAge()
+    {
+        return parameters.getMaxAge(getSpecies());
+    }
 
     /**
-     * Abstract method to get the breeding probability of the animal.
+     * Get the breeding probability of the animal.
      * @return double The breeding probability of the animal.
      */
-    abstract double getBreedingProbability();
+    protected double getBreedingProbability()
+    {
+        return parameters.getBreedingProbability(getSpecies());
+    }
 
     /**
-     * Abstract method to get the maximum litter size of a specific animal.
-     * @return int The maximum litter size of a specific animal.
+     * Get the maximum litter size of the animal.
+     * @return int The maximum litter size of the animal.
      */
-    abstract int getMaxLitterSize();
+    protected int getMaxLitterSize()
+    {
+        return parameters.getMaxLitterSize(getSpecies());
+    }
 
     /**
-     * Abstract method to get the food value of a specific animal.
-     * @return int The food value of the specific animal.
+     * Get the food value of the animal.
+     * @return int The food value of the animal.
      */
-    abstract int getFoodValue();
+    protected int getFoodValue()
+    {
+        return parameters.getFoodValue(getSpecies());
+    }
 
     /**
-     * Abstract method to get the age of the specific animal.
-     * @return int The age of a specific animal.
+     * Get the nocturnal status of the animal.
+     * @return boolean of nocturnal status.
      */
-    abstract int getAge();
+    public boolean getIsNocturnal()
+    {
+        return species.isNocturnal();
+    }
 
     /**
-     * Abstract method to get the nocturnal status of an animal.
-     * @param getIsNocturnal The time of day an animal acts during. 
+     * Get the species of the animal.
+     * @return The animal's species.
      */
-    abstract public boolean getIsNocturnal();
+    public Species getSpecies()
+    {
+        return species;
+    }
 
     /**
-     * Abstract method to set the age of a specific animal.
+     * Get the age of the animal.
+     * @return int The age of the animal.
+     */
+    protected int getAge()
+    {
+        return store.getAge(slot);
+    }
+
+    /**
+     * Set the age of the animal.
      * @param age the age of the animal.
      */
-    abstract void setAge(int age);
+    protected void setAge(int age)
+    {
+        store.setAge(slot, age);
+    }
+
+    /**
+     * Set the food level of the animal.
+     * @param foodValue The food level of the animal.
+     */
+    protected void setFoodLevel(int foodValue)
+    {
+        store.setFoodLevel(slot, foodValue);
+    }
 
     /**
-     * Abstract method to set the food level of the specific animal.
-     * @param food value The food an animal requires.
+     * Write the animal's age, food level, disease and gender.
+     * @param out Where to write the state.
+     * @throws IOException If the state cannot be written.
      */
-    abstract void setFoodLevel(int foodValue);
+    public void writeState(DataOutput out) throws IOException
+    {
+        out.writeInt(store.getAge(slot));
+        out.writeInt(store.getFoodLevel(slot));
+        out.writeInt(store.getDiseaseCount(slot));
+        out.writeBoolean(store.isMale(slot));
+        out.writeBoolean(store.isDiseased(slot));
+    }
+
+    /**
+     * Read back state written by writeState.
+     * @param in Where to read the state from.
+     * @throws IOException If the state cannot be read.
+     */
+    public void readState(DataInput in) throws IOException
+    {
+        store.setAge(slot, in.readInt());
+        store.setFoodLevel(slot, in.readInt());
+        store.setDiseaseCount(slot, in.readInt());
+        store.setMale(slot, in.readBoolean());
+        store.setDiseased(slot, in.readBoolean());
+    }
 }
@@ -0,0 +1,403 @@
+import java.util.Arrays;
+
+/**
+ * Hold the changing state of every animal in a field in parallel
+ * primitive arrays, indexed by a slot given to each animal when it
+ * is created. An animal object only keeps its field, this store and
+ * its slot, so an animal costs a few dozen bytes rather than a few
+ * hundred, and passes over one attribute of every animal (such as
+ * ageing) run through contiguous memory.
+ * 
+ * The arrays are split into fixed-size pages. The store grows by
+ * adding pages, never by copying, so animals born on several threads
+ * during a parallel step can be given slots while other threads are
+ * updating theirs. Slots of dead animals are reclaimed between steps.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class AnimalStore
+{
+    // The number of slots in a page is 2 to the power of this.
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // Bits of an animal's flags.
+    private static final byte MALE = 1;
+    private static final byte DISEASED = 2;
+    private static final byte DEAD = 4;
+
+    // An animal dies once it has been diseased for more steps than this.
+    private static final int MAX_DISEASE_COUNT = 3;
+
+    // The pages of each attribute.
+    private final int[][] ages;
+    private final int[][] foodLevels;
+    private final int[][] diseaseCounts;
+    private final int[][] cells;
+    private final byte[][] flags;
+    private final byte[][] species;
+    private final Animal[][] owners;
+
+    // The age each species can live to, indexed by species id.
+    private final int[] maxAges = new int[Species.MAX_SPECIES];
+
+    // Scratch space for age: 1 for each live animal of the page to be
+    // aged, otherwise 0.
+    private final int[] ticks = new int[PAGE_SIZE];
+    // The slots of the animals age found are to die this step.
+    private int[] expired = new int[PAGE_SIZE];
+    private int expiredCount;
+
+    // The number of slots that have ever been handed out.
+    private int highWater;
+    // Slots given back by dead animals, to be handed out again.
+    private int[] freeSlots;
+    private int freeCount;
+
+    /**
+     * Create a store able to hold the given number of animals at once.
+     * Pages are only created as they are needed.
+     * @param maxSlots The most slots that can be in use at once.
+     */
+    public AnimalStore(int maxSlots)
+    {
+        int pages = (maxSlots + PAGE_SIZE - 1) >>> PAGE_BITS;
+        ages = new int[pages][];
+        foodLevels = new int[pages][];
+        diseaseCounts = new int[pages][];
+        cells = new int[pages][];
+        flags = new byte[pages][];
+        species = new byte[pages][];
+        owners = new Animal[pages][];
+        freeSlots = new int[PAGE_SIZE];
+    }
+
+    /**
+     * Give a newly created animal a slot. All of its attributes
+     * start at zero.
+     * @param owner The animal.
+     * @param speciesId The id of the animal's species.
+     * @param maxAge The age to which animals of the species can live.
+     * @return The animal's slot.
+     */
+    public synchronized int allocate(Animal owner, int speciesId, int maxAge)
+    {
+        maxAges[speciesId] = maxAge;
+        int slot;
+        if(freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        }
+        else {
+            slot = highWater++;
+            int page = slot >>> PAGE_BITS;
+            if(page >= owners.length) {
+                throw new IllegalStateException("The animal store is full.");
+            }
+            if(owners[page] == null) {
+                addPage(page);
+            }
+        }
+        int page = slot >>> PAGE_BITS;
+        int index = slot & PAGE_MASK;
+        owners[page][index] = owner;
+        species[page][index] = (byte) speciesId;
+        return slot;
+    }
+
+    /**
+     * Age every live animal of the given species by one step: each
+     * gets older and hungrier, and diseased animals get closer to
+     * dying of their disease. This is one pass over the store for the
+     * whole step. The animals that are then too old, starving or have
+     * been diseased too long are noted, and die when expire is called
+     * for their species, just before they would act.
+     * 
+     * The updates are made a page at a time in loops over the
+     * primitive arrays, and the rarer deaths are looked for in a
+     * separate loop.
+     * @param speciesMask Bit n is set if the animals of the species
+     *                    with id n are to be aged.
+     */
+    public void age(long speciesMask)
+    {
+        expiredCount = 0;
+        int pages = (highWater + PAGE_SIZE - 1) >>> PAGE_BITS;
+        for(int page = 0; page < pages; page++) {
+            int size = Math.min(PAGE_SIZE, highWater - (page << PAGE_BITS));
+            int[] age = ages[page];
+            int[] food = foodLevels[page];
+            int[] disease = diseaseCounts[page];
+            byte[] flag = flags[page];
+            byte[] kind = species[page];
+            for(int i = 0; i < size; i++) {
+                ticks[i] = (int) (speciesMask >>> kind[i]) & 1 & ~(flag[i] >> 2);
+            }
+            for(int i = 0; i < size; i++) {
+                age[i] += ticks[i];
+                food[i] -= ticks[i];
+                disease[i] += ticks[i] & (flag[i] >> 1);
+            }
+            for(int i = 0; i < size; i++) {
+                if(ticks[i] != 0 && causeOfDeath(page, i) != null) {
+                    if(expiredCount == expired.length) {
+                        expired = Arrays.copyOf(expired, expiredCount * 2);
+                    }
+                    expired[expiredCount++] = (page << PAGE_BITS) | i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Let the animals of the given species that age found too old,
+     * starving or diseased too long die, in the order of their slots.
+     * Nothing an animal of another species does changes these, so
+     * they can be applied when the species is about to act.
+     * @param speciesMask Bit n is set for the species with id n.
+     */
+    public void expire(long speciesMask)
+    {
+        for(int e = 0; e < expiredCount; e++) {
+            int page = expired[e] >>> PAGE_BITS;
+            int index = expired[e] & PAGE_MASK;
+            if(((speciesMask >>> species[page][index]) & 1) != 0
+               && (flags[page][index] & DEAD) == 0) {
+                owners[page][index].setDead(causeOfDeath(page, index));
+            }
+        }
+    }
+
+    /**
+     * @return Why the animal in a slot is to die, or null if it lives.
+     */
+    private DeathCause causeOfDeath(int page, int index)
+    {
+        if(ages[page][index] > maxAges[species[page][index]]) {
+            return DeathCause.OLD_AGE;
+        }
+        else if(foodLevels[page][index] <= 0) {
+            return DeathCause.STARVATION;
+        }
+        else if(diseaseCounts[page][index] > MAX_DISEASE_COUNT) {
+            return DeathCause.DISEASE;
+        }
+        return null;
+    }
+
+    /**
+     * Mark an animal as dead. Its slot is kept until the next call
+     * of reclaim, so the animal can finish its turn.
+     * @param slot The animal's slot.
+     */
+    public void markDead(int slot)
+    {
+        flags[slot >>> PAGE_BITS][slot & PAGE_MASK] |= DEAD;
+    }
+
+    /**
+     * Give back the slots of every animal marked dead. This must not
+     * be called while animals are acting.
+     */
+    public synchronized void reclaim()
+    {
+        for(int slot = 0; slot < highWater; slot++) {
+            int page = slot >>> PAGE_BITS;
+            int index = slot & PAGE_MASK;
+            if((flags[page][index] & DEAD) != 0) {
+                clearSlot(page, index);
+                if(freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Forget every animal.
+     */
+    public synchronized void clear()
+    {
+        for(int slot = 0; slot < highWater; slot++) {
+            clearSlot(slot >>> PAGE_BITS, slot & PAGE_MASK);
+        }
+        highWater = 0;
+        freeCount = 0;
+    }
+
+    /**
+     * @return The number of slots ever handed out. Every slot in use
+     *         is below this.
+     */
+    public int getHighWater()
+    {
+        return highWater;
+    }
+
+    /**
+     * @return The animal's age.
+     */
+    public int getAge(int slot)
+    {
+        return ages[slot >>> PAGE_BITS][slot & PAGE_MASK];
+    }
+
+    /**
+     * Set an animal's age.
+     * @param slot The animal's slot.
+     * @param age The new age.
+     */
+    public void setAge(int slot, int age)
+    {
+        ages[slot >>> PAGE_BITS][slot & PAGE_MASK] = age;
+    }
+
+    /**
+     * @return The animal's food level.
+     */
+    public int getFoodLevel(int slot)
+    {
+        return foodLevels[slot >>> PAGE_BITS][slot & PAGE_MASK];
+    }
+
+    /**
+     * Set an animal's food level.
+     * @param slot The animal's slot.
+     * @param foodLevel The new food level.
+     */
+    public void setFoodLevel(int slot, int foodLevel)
+    {
+        foodLevels[slot >>> PAGE_BITS][slot & PAGE_MASK] = foodLevel;
+    }
+
+    /**
+     * @return The number of steps the animal has been diseased.
+     */
+    public int getDiseaseCount(int slot)
+    {
+        return diseaseCounts[slot >>> PAGE_BITS][slot & PAGE_MASK];
+    }
+
+    /**
+     * Set the number of steps an animal has been diseased.
+     * @param slot The animal's slot.
+     * @param diseaseCount The new count.
+     */
+    public void setDiseaseCount(int slot, int diseaseCount)
+    {
+        diseaseCounts[slot >>> PAGE_BITS][slot & PAGE_MASK] = diseaseCount;
+    }
+
+    /**
+     * @return The index of the field cell the animal is in.
+     */
+    public int getCell(int slot)
+    {
+        return cells[slot >>> PAGE_BITS][slot & PAGE_MASK];
+    }
+
+    /**
+     * Record the field cell an animal is in.
+     * @param slot The animal's slot.
+     * @param cell The index of the cell.
+     */
+    public void setCell(int slot, int cell)
+    {
+        cells[slot >>> PAGE_BITS][slot & PAGE_MASK] = cell;
+    }
+
+    /**
+     * @return true if the animal is male.
+     */
+    public boolean isMale(int slot)
+    {
+        return (flags[slot >>> PAGE_BITS][slot & PAGE_MASK] & MALE) != 0;
+    }
+
+    /**
+     * Set whether an animal is male.
+     * @param slot The animal's slot.
+     * @param male Whether it is male.
+     */
+    public void setMale(int slot, boolean male)
+    {
+        setFlag(slot, MALE, male);
+    }
+
+    /**
+     * @return true if the animal is diseased.
+     */
+    public boolean isDiseased(int slot)
+    {
+        return (flags[slot >>> PAGE_BITS][slot & PAGE_MASK] & DISEASED) != 0;
+    }
+
+    /**
+     * Set whether an animal is diseased.
+     * @param slot The animal's slot.
+     * @param diseased Whether it is diseased.
+     */
+    public void setDiseased(int slot, boolean diseased)
+    {
+        setFlag(slot, DISEASED, diseased);
+    }
+
+    /**
+     * @return The id of the animal's species.
+     */
+    public int getSpeciesId(int slot)
+    {
+        return species[slot >>> PAGE_BITS][slot & PAGE_MASK];
+    }
+
+    /**
+     * Set or clear one of an animal's flags.
+     * @param slot The animal's slot.
+     * @param flag The flag's bit.
+     * @param value Whether the flag is set.
+     */
+    private void setFlag(int slot, byte flag, boolean value)
+    {
+        byte[] page = flags[slot >>> PAGE_BITS];
+        int index = slot & PAGE_MASK;
+        if(value) {
+            page[index] |= flag;
+        }
+        else {
+            page[index] &= ~flag;
+        }
+    }
+
+    /**
+     * Create the arrays for one page.
+     * @param page The index of the page.
+     */
+    private void addPage(int page)
+    {
+        ages[page] = new int[PAGE_SIZE];
+        foodLevels[page] = new int[PAGE_SIZE];
+        diseaseCounts[page] = new int[PAGE_SIZE];
+        cells[page] = new int[PAGE_SIZE];
+        flags[page] = new byte[PAGE_SIZE];
+        species[page] = new byte[PAGE_SIZE];
+        owners[page] = new Animal[PAGE_SIZE];
+    }
+
+    /**
+     * Set every attribute of a slot back to zero.
+     * @param page The page holding the slot.
+     * @param index The slot's index within the page.
+     */
+    private void clearSlot(int page, int index)
+    {
+        ages[page][index] = 0;
+        foodLevels[page][index] = 0;
+        diseaseCounts[page][index] = 0;
+        cells[page][index] = 0;
+        flags[page][index] = 0;
+        species[page][index] = 0;
+        owners[page][index] = null;
+    }
+}
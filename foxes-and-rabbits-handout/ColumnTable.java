@@ -0,0 +1,148 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table of numbers stored by column, so that one column can be
+ * read or compared without going through every row.
+ *
+ * On disk a table is a magic number, the number of columns and rows,
+ * the column names, and then each column's values one after another,
+ * all in the big-endian form of DataOutput.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class ColumnTable
+{
+    // The first int of a table file.
+    private static final int MAGIC = 0x50504354;
+
+    private final List<String> names;
+    private final double[][] columns;
+    private final int rows;
+
+    /**
+     * Create a table of zeros.
+     * @param names The names of the columns.
+     * @param rows The number of rows.
+     */
+    public ColumnTable(List<String> names, int rows)
+    {
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        this.rows = rows;
+        columns = new double[names.size()][rows];
+    }
+
+    /**
+     * @return The names of the columns.
+     */
+    public List<String> getNames()
+    {
+        return names;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * Set one value.
+     * @param row The row.
+     * @param column The index of the column.
+     * @param value The value.
+     */
+    public void set(int row, int column, double value)
+    {
+        columns[column][row] = value;
+    }
+
+    /**
+     * Return one value.
+     * @param row The row.
+     * @param column The index of the column.
+     * @return The value.
+     */
+    public double get(int row, int column)
+    {
+        return columns[column][row];
+    }
+
+    /**
+     * Return a column by name. The array is the table's own.
+     * @param name The name of the column.
+     * @return The column's values, one per row.
+     * @throws IllegalArgumentException If there is no such column.
+     */
+    public double[] getColumn(String name)
+    {
+        int column = names.indexOf(name);
+        if(column < 0) {
+            throw new IllegalArgumentException("There is no column " + name + ".");
+        }
+        return columns[column];
+    }
+
+    /**
+     * Write the table to a file.
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException
+    {
+        try(DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(columns.length);
+            out.writeInt(rows);
+            for(String name : names) {
+                out.writeUTF(name);
+            }
+            for(double[] column : columns) {
+                for(double value : column) {
+                    out.writeDouble(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a table written by write.
+     * @param path The file to read.
+     * @return The table.
+     * @throws IOException If the file cannot be read or is not a table.
+     */
+    public static ColumnTable read(Path path) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if(in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a column table.");
+            }
+            int count = in.readInt();
+            int rows = in.readInt();
+            List<String> names = new ArrayList<>();
+            for(int column = 0; column < count; column++) {
+                names.add(in.readUTF());
+            }
+            ColumnTable table = new ColumnTable(names, rows);
+            for(double[] column : table.columns) {
+                for(int row = 0; row < rows; row++) {
+                    column[row] = in.readDouble();
+                }
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * The ways an actor can die.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public enum DeathCause
+{
+    OLD_AGE, STARVATION, DISEASE, EATEN, OVERCROWDING;
+}
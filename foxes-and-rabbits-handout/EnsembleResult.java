@@ -0,0 +1,80 @@
+/**
+ * The species counts of an ensemble of replicate runs, summarised
+ * step by step as the runs report them. For every step and species
+ * the counts of all the replicates are gathered into running
+ * statistics, so no run's trace is kept.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class EnsembleResult
+{
+    // The quantiles estimated for each step and species.
+    public static final double[] QUANTILES = { 0.05, 0.5, 0.95 };
+
+    // The statistics of each step, indexed by species id.
+    private final RunningStatistics[][] statistics;
+    private final int replicates;
+
+    /**
+     * Create an empty result.
+     * @param steps The number of steps each run takes.
+     * @param replicates The number of runs.
+     */
+    public EnsembleResult(int steps, int replicates)
+    {
+        this.replicates = replicates;
+        statistics = new RunningStatistics[steps + 1][Species.count() + 1];
+        for(RunningStatistics[] row : statistics) {
+            for(int id = 1; id < row.length; id++) {
+                row[id] = new RunningStatistics(QUANTILES);
+            }
+        }
+    }
+
+    /**
+     * Add one run's species counts at a step. Runs on different
+     * threads may report at once.
+     * @param step The step, from 0 for the starting state.
+     * @param field The run's field at that step.
+     */
+    public void record(int step, Field field)
+    {
+        if(step >= statistics.length) {
+            return;
+        }
+        RunningStatistics[] row = statistics[step];
+        synchronized(row) {
+            for(int id = 1; id < row.length; id++) {
+                row[id].add(field.getCount(id));
+            }
+        }
+    }
+
+    /**
+     * @return The number of steps each run takes.
+     */
+    public int getSteps()
+    {
+        return statistics.length - 1;
+    }
+
+    /**
+     * @return The number of runs.
+     */
+    public int getReplicates()
+    {
+        return replicates;
+    }
+
+    /**
+     * Return the statistics of a species' count at a step.
+     * @param step The step, from 0 for the starting state.
+     * @param species The species.
+     * @return The statistics of its count over the runs.
+     */
+    public RunningStatistics getStatistics(int step, Species species)
+    {
+        return statistics[step][species.getId()];
+    }
+}
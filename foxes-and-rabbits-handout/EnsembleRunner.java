@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Run many independent replicates of a simulation in parallel, each
+ * headless and with its own seed, and summarise their species counts
+ * step by step as they go.
+ *
+ * Every replicate runs on a single thread, where it has its own
+ * random streams, so the replicates do not share any changing state
+ * and each is the same as if it were run alone. Up to rounding, the
+ * means and variances do not depend on the order in which the
+ * replicates report, but the quantile estimates may vary slightly
+ * with it.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class EnsembleRunner
+{
+    private final int depth;
+    private final int width;
+    private final int steps;
+    // The number of replicates run at once.
+    private int threads;
+
+    /**
+     * Create a runner of simulations with the given field size.
+     * @param depth The depth of each field.
+     * @param width The width of each field.
+     * @param steps The number of steps each replicate runs for.
+     */
+    public EnsembleRunner(int depth, int width, int steps)
+    {
+        this.depth = depth;
+        this.width = width;
+        this.steps = steps;
+        threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Set the number of replicates run at once. This defaults to
+     * the number of processors.
+     * @param threads The number of threads.
+     */
+    public void setThreads(int threads)
+    {
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Run the replicates. Replicate r uses the seed derived from the
+     * base seed and r, so the same base seed gives the same runs.
+     * @param replicates The number of replicates.
+     * @param baseSeed The seed the replicates' seeds are derived from.
+     * @return The summary of their species counts.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public EnsembleResult run(int replicates, long baseSeed) throws InterruptedException
+    {
+        EnsembleResult result = new EnsembleResult(steps, replicates);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for(int r = 0; r < replicates; r++) {
+                long seed = Randomizer.deriveSeed(baseSeed, r);
+                runs.add(pool.submit(() -> runReplicate(seed, result)));
+            }
+            for(Future<?> run : runs) {
+                try {
+                    run.get();
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException("A replicate failed.", e.getCause());
+                }
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * Run one replicate, reporting its counts after every step.
+     * @param seed The replicate's seed.
+     * @param result Where to report the counts.
+     */
+    private void runReplicate(long seed, EnsembleResult result)
+    {
+        Simulator simulator = new Simulator(depth, width, false, new SimulationParameters(), seed);
+        // The observer is shown step 0 as it is attached.
+        simulator.addObserver((step, field, isDay, weather) -> result.record(step, field));
+        for(int step = 1; step <= steps; step++) {
+            simulator.simulateOneStep();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only binary log of everything that happens in a
+ * simulation, from which EventLogReader can rebuild the field as it
+ * was at any step without running the simulation again.
+ *
+ * Each event is an opcode byte followed by its values as varints,
+ * seven bits to a byte. Moves and kills are always between
+ * neighbouring cells, so the direction of the second cell from the
+ * first is packed into the spare bits of the opcode, and most
+ * events take three bytes. Events are gathered in a byte array and
+ * written to the file channel a buffer at a time.
+ *
+ * Attach the log with Simulator.setListener, and close it once the
+ * run is over.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class EventLog implements SimulationListener, Closeable
+{
+    // The first bytes of every log file.
+    static final int MAGIC = 0x50504c47;
+    static final int VERSION = 1;
+
+    // Opcodes of the events.
+    static final byte STEP = 0;
+    static final byte WEATHER = 1;
+    static final byte BIRTH = 2;
+    static final byte MOVE = 3;
+    // A move by an actor that had already lost its old cell.
+    static final byte STRAY_MOVE = 4;
+    static final byte KILL = 5;
+    static final byte DEATH = 6;
+
+    // The low bits of an opcode byte hold the opcode, the rest the
+    // direction of a move or kill.
+    static final int OPCODE_BITS = 3;
+    static final int OPCODE_MASK = (1 << OPCODE_BITS) - 1;
+
+    // The most bytes a single event can take.
+    private static final int MAX_EVENT_SIZE = 16;
+
+    private final FileChannel channel;
+    // Events not yet written, and how many bytes of them there are.
+    private final byte[] bytes;
+    private int size;
+    private final int width;
+    // The weather last logged.
+    private WeatherState weather;
+
+    /**
+     * Create a log file for a field of the given size, replacing any
+     * file already there.
+     * @param file The file to write.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     * @throws IOException If the file cannot be created.
+     */
+    public EventLog(Path file, int depth, int width) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        bytes = new byte[1 << 16];
+        this.width = width;
+        ByteBuffer.wrap(bytes).putInt(MAGIC);
+        size = 4;
+        writeVarint(VERSION);
+        writeVarint(depth);
+        writeVarint(width);
+    }
+
+    @Override
+    public synchronized void stepStarted(int step)
+    {
+        reserve();
+        put(STEP);
+        writeVarint(step);
+        if(step == 0) {
+            // Log the weather of the new run even if it is unchanged.
+            weather = null;
+        }
+    }
+
+    @Override
+    public synchronized void weatherChanged(WeatherState weather)
+    {
+        if(weather != this.weather) {
+            this.weather = weather;
+            reserve();
+            put(WEATHER);
+            put((byte) weather.ordinal());
+        }
+    }
+
+    @Override
+    public synchronized void born(Actor actor, Location location)
+    {
+        reserve();
+        put(BIRTH);
+        writeVarint(actor.getSpecies().getId());
+        writeVarint(indexOf(location));
+    }
+
+    @Override
+    public synchronized void moved(Actor actor, Location from, Location to)
+    {
+        reserve();
+        if(from != null) {
+            put((byte) (MOVE | direction(from, to) << OPCODE_BITS));
+            writeVarint(indexOf(from));
+        }
+        else {
+            put(STRAY_MOVE);
+            writeVarint(actor.getSpecies().getId());
+            writeVarint(indexOf(to));
+        }
+    }
+
+    @Override
+    public synchronized void killed(Actor eater, Actor food)
+    {
+        Location from = eater.getLocation();
+        reserve();
+        put((byte) (KILL | direction(from, food.getLocation()) << OPCODE_BITS));
+        writeVarint(indexOf(from));
+    }
+
+    @Override
+    public synchronized void died(Actor actor, Location location, DeathCause cause)
+    {
+        reserve();
+        put(DEATH);
+        writeVarint(indexOf(location));
+        put((byte) cause.ordinal());
+    }
+
+    /**
+     * Write every buffered event to the file.
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    public synchronized void flush()
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        try {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            size = 0;
+        }
+    }
+
+    /**
+     * Write every buffered event to the file and close it.
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Make sure there is room in the buffer for another event.
+     */
+    private void reserve()
+    {
+        if(bytes.length - size < MAX_EVENT_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Append a byte.
+     * @param value The byte.
+     */
+    private void put(byte value)
+    {
+        bytes[size++] = value;
+    }
+
+    /**
+     * Append a non-negative value as a varint.
+     * @param value The value.
+     */
+    private void writeVarint(int value)
+    {
+        while((value & ~0x7f) != 0) {
+            bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Give the direction from one location to a neighbouring one as
+     * a number from 0 to 8, which EventLogReader turns back into
+     * a location.
+     * @param from The first location.
+     * @param to The neighbouring location.
+     * @return The direction.
+     */
+    static int direction(Location from, Location to)
+    {
+        return (to.getRow() - from.getRow() + 1) * 3 + (to.getCol() - from.getCol() + 1);
+    }
+
+    /**
+     * @return The index of a location's cell in row-major order.
+     */
+    private int indexOf(Location location)
+    {
+        return location.getRow() * width + location.getCol();
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read a log written by EventLog and rebuild the field as it was at
+ * a given step, by replaying every event up to that step. The file
+ * is memory-mapped, so replaying is a single pass over its bytes.
+ *
+ * A rebuilt field holds the Species of each actor in its cell in
+ * place of the actor itself, so its tags, kinds and counts are those
+ * of the simulation's field.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class EventLogReader implements Closeable
+{
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int depth;
+    private final int width;
+    // Where the first event starts.
+    private final int start;
+    // The weather at the step last replayed.
+    private WeatherState weather;
+
+    /**
+     * Open a log file.
+     * @param file The file to read.
+     * @throws IOException If the file cannot be read, or is not a log.
+     */
+    public EventLogReader(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if(buffer.remaining() < 4 || buffer.getInt() != EventLog.MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not an event log.");
+        }
+        int version = readVarint();
+        if(version != EventLog.VERSION) {
+            channel.close();
+            throw new IOException("Unknown event log version " + version + ".");
+        }
+        depth = readVarint();
+        width = readVarint();
+        start = buffer.position();
+    }
+
+    /**
+     * @return The depth of the logged field.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return The width of the logged field.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return The weather at the step last replayed, or null if the
+     *         log holds no weather by then.
+     */
+    public WeatherState getWeather()
+    {
+        return weather;
+    }
+
+    /**
+     * Rebuild the field as it was once the given step had finished.
+     * If the simulation was reset during the logged run, the step
+     * is taken from the first run that reached it.
+     * @param step The step.
+     * @return The field at that step.
+     */
+    public Field replayTo(int step)
+    {
+        Field field = new Field(depth, width);
+        weather = null;
+        buffer.position(start);
+        while(buffer.hasRemaining()) {
+            int event = buffer.get() & 0xff;
+            int opcode = event & EventLog.OPCODE_MASK;
+            int direction = event >>> EventLog.OPCODE_BITS;
+            switch(opcode) {
+                case EventLog.STEP:
+                    int next = readVarint();
+                    if(next > step) {
+                        return field;
+                    }
+                    if(next == 0) {
+                        field.clear();
+                    }
+                    break;
+                case EventLog.WEATHER:
+                    weather = WeatherState.values()[buffer.get()];
+                    break;
+                case EventLog.BIRTH:
+                case EventLog.STRAY_MOVE:
+                    Species species = Species.byId(readVarint());
+                    field.place(species, field.getLocationAt(readVarint()));
+                    break;
+                case EventLog.MOVE:
+                    Location from = field.getLocationAt(readVarint());
+                    Object mover = field.getObjectAt(from);
+                    field.clear(from);
+                    field.place(mover, neighbour(field, from, direction));
+                    break;
+                case EventLog.KILL:
+                    // The death that follows clears the cell.
+                    readVarint();
+                    break;
+                case EventLog.DEATH:
+                    field.clear(field.getLocationAt(readVarint()));
+                    buffer.get();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event " + event
+                                                    + " at byte " + (buffer.position() - 1) + ".");
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Close the log file.
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Read a varint.
+     * @return Its value.
+     */
+    private int readVarint()
+    {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while(b < 0);
+        return value;
+    }
+
+    /**
+     * Find the neighbour of a location in a direction given by
+     * EventLog.direction.
+     * @param field The field.
+     * @param from The location.
+     * @param direction The direction.
+     * @return The neighbouring location.
+     */
+    private static Location neighbour(Field field, Location from, int direction)
+    {
+        return field.getLocation(from.getRow() + direction / 3 - 1,
+                                 from.getCol() + direction % 3 - 1);
+    }
+}
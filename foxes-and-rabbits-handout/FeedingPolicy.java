@@ -0,0 +1,13 @@
+/**
+ * How an animal chooses which of its neighbours to eat.
+ * FIRST_FOUND eats the first edible neighbour met on a walk that
+ * starts at a random neighbour. BEST_MEAL eats the edible neighbour
+ * with the highest food value, the first met winning ties.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public enum FeedingPolicy
+{
+    FIRST_FOUND, BEST_MEAL;
+}
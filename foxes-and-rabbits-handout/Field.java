@@ -1,13 +1,27 @@
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Represent a rectangular grid of field positions.
  * Each position is able to store a single actor.
  * 
+ * Cells are stored in row-major order in two flat arrays: an int
+ * tag giving the species (and so the kind) of the occupant, and the
+ * occupant itself at the same index. Checks on what kind of actor is
+ * in a cell only need to read the tag array.
+ * 
+ * The field can also keep one bit per cell marking the cells whose
+ * tag has changed since the changes were last taken, so that a view
+ * can redraw only those cells. The bits are only kept while changes
+ * are tracked, which the simulator switches on for the one view it
+ * allows to be attached, so that a run without a view does not pay
+ * for them.
+ * 
  * @author David J. Barnes and Michael Kölling
  * @version 2016.02.29
  */
@@ -15,22 +29,93 @@ public class Field
 {
     // A random number generator for providing random locations.
     private static final Random rand = Randomizer.getRandom();
+
+    // Row and column offsets of the eight neighbouring cells,
+    // listed clockwise starting from the cell above.
+    private static final int[] ROW_OFFSETS = { -1, -1, 0, 1, 1, 1, 0, -1 };
+    private static final int[] COL_OFFSETS = { 0, 1, 1, 1, 0, -1, -1, -1 };
+
+    // Accepts the first empty cell offered to it.
+    private static final NeighbourVisitor<Field> FREE_CELL =
+        (field, row, col) -> field.isEmpty(row, col);
     
     // The depth and width of the field.
     private int depth, width;
-    // Storage for the actors.
-    private Object[][] field;
+    // The species tag of each cell, or 0 if the cell is empty.
+    private int[] cells;
+    // The actor in each cell, at the same index as its tag.
+    private Object[] occupants;
+    // One bit per cell, set when its tag changes. Atomic because a
+    // parallel step can change cells sharing a word from two threads.
+    private AtomicLongArray changes;
+    // Whether the changes are being marked. Only switched between
+    // steps.
+    private boolean trackingChanges;
+    // The number of actors of each species in the field, indexed by
+    // species id and kept up to date as actors are placed and cleared.
+    // Adders let a parallel step update them from several threads.
+    private LongAdder[] counts;
+    // The changing state of the animals in the field.
+    private AnimalStore animals;
+    // The parameters of the simulation in the field.
+    private final SimulationParameters parameters;
+    // Told about each change the simulation makes to the field.
+    private SimulationListener listener = SimulationListener.NONE;
+    // One shared location for each cell, handed out instead of
+    // creating a new location every time one is needed.
+    private Location[] locations;
 
     /**
-     * Represent a field of the given dimensions.
+     * Represent a field of the given dimensions, for a simulation
+     * with the standard parameters.
      * @param depth The depth of the field.
      * @param width The width of the field.
      */
     public Field(int depth, int width)
     {
+        this(depth, width, new SimulationParameters());
+    }
+
+    /**
+     * Represent a field of the given dimensions.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     * @param parameters The parameters of the simulation in the field.
+     */
+    public Field(int depth, int width, SimulationParameters parameters)
+    {
+        this.parameters = parameters;
         this.depth = depth;
         this.width = width;
-        field = new Object[depth][width];
+        cells = new int[depth * width];
+        occupants = new Object[depth * width];
+        changes = new AtomicLongArray(changeWords(depth * width));
+        counts = new LongAdder[Species.count() + 1];
+        for(int id = 0; id < counts.length; id++) {
+            counts[id] = new LongAdder();
+        }
+        // At most one animal can be in each cell, but animals that
+        // die during a step keep their slots until the step ends.
+        animals = new AnimalStore(4 * depth * width);
+        locations = new Location[depth * width];
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                locations[row * width + col] = new Location(row, col);
+            }
+        }
+    }
+
+    /**
+     * Return the field's location object for the given cell. The
+     * same object is returned every time for the same cell, so
+     * locations from the field can be compared by identity.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The location of the cell.
+     */
+    public Location getLocation(int row, int col)
+    {
+        return locations[row * width + col];
     }
     
     /**
@@ -38,20 +123,180 @@ public class Field
      */
     public void clear()
     {
-        for(int row = 0; row < depth; row++) {
-            for(int col = 0; col < width; col++) {
-                field[row][col] = null;
-            }
+        Arrays.fill(cells, 0);
+        Arrays.fill(occupants, null);
+        for(LongAdder count : counts) {
+            count.reset();
+        }
+        animals.clear();
+        markAllChanged();
+    }
+
+    /**
+     * Return the number of longs needed to hold one bit per cell.
+     * @param cellCount The number of cells.
+     * @return The number of longs.
+     */
+    public static int changeWords(int cellCount)
+    {
+        return (cellCount + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Start or stop tracking which cells change. Starting marks every
+     * cell as changed, so the first changes taken cover the whole
+     * field. Only one user, such as a view, may take the changes
+     * while they are tracked, as taking them clears them.
+     * @param tracking Whether to track the changes.
+     * @throws IllegalStateException If the changes are already
+     *                               tracked for another user.
+     */
+    public void setTrackingChanges(boolean tracking)
+    {
+        if(tracking && trackingChanges) {
+            throw new IllegalStateException("The field's changes are already tracked for another user.");
+        }
+        trackingChanges = tracking;
+        if(tracking) {
+            markAllChanged();
+        }
+    }
+
+    /**
+     * @return Whether the field is tracking which cells change.
+     */
+    public boolean isTrackingChanges()
+    {
+        return trackingChanges;
+    }
+
+    /**
+     * Copy the bits of the cells changed since the changes were last
+     * taken into an array, and start marking afresh. Bit i % 64 of
+     * element i / 64 is set if cell i, counted row by row, changed.
+     * If changes are not being tracked every cell is given as
+     * changed.
+     * @param into The array to fill, at least changeWords long.
+     */
+    public void takeChanges(long[] into)
+    {
+        for(int word = 0; word < changes.length(); word++) {
+            into[word] = trackingChanges ? changes.getAndSet(word, 0) : allChanged(word);
+        }
+    }
+
+    /**
+     * Mark every cell as changed, if changes are being tracked.
+     */
+    public void markAllChanged()
+    {
+        if(!trackingChanges) {
+            return;
+        }
+        for(int word = 0; word < changes.length(); word++) {
+            changes.set(word, allChanged(word));
+        }
+    }
+
+    /**
+     * @param word The index of a word of the change bits.
+     * @return The word with the bit of every cell it covers set.
+     */
+    private long allChanged(int word)
+    {
+        int bits = Math.min(cells.length - word * Long.SIZE, Long.SIZE);
+        return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * Mark one cell as changed, if changes are being tracked.
+     * @param index The index of the cell.
+     */
+    private void markChanged(int index)
+    {
+        if(!trackingChanges) {
+            return;
+        }
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if((changes.get(word) & bit) == 0) {
+            changes.getAndAccumulate(word, bit, (old, mark) -> old | mark);
         }
     }
     
+    /**
+     * Return the store holding the state of the animals in the field.
+     * @return The field's animal store.
+     */
+    public AnimalStore getAnimals()
+    {
+        return animals;
+    }
+
+    /**
+     * Return the parameters of the simulation in the field, which
+     * its actors take their life histories from.
+     * @return The simulation's parameters.
+     */
+    public SimulationParameters getParameters()
+    {
+        return parameters;
+    }
+
+    /**
+     * Return the listener told about each change the simulation
+     * makes to the field.
+     * @return The field's listener.
+     */
+    public SimulationListener getListener()
+    {
+        return listener;
+    }
+
+    /**
+     * Set the listener told about each change the simulation makes
+     * to the field.
+     * @param listener The listener, or SimulationListener.NONE.
+     */
+    public void setListener(SimulationListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Return the field's location object for a cell given by its
+     * index in row-major order.
+     * @param index The index of the cell.
+     * @return The location of the cell.
+     */
+    public Location getLocationAt(int index)
+    {
+        return locations[index];
+    }
+
+    /**
+     * Return the index of a location's cell in row-major order.
+     * @param location The location.
+     * @return The index of its cell.
+     */
+    public int indexOf(Location location)
+    {
+        return location.getRow() * width + location.getCol();
+    }
+
     /**
      * Clear the given location.
      * @param location The location to clear.
      */
     public void clear(Location location)
     {
-        field[location.getRow()][location.getCol()] = null;
+        int index = location.getRow() * width + location.getCol();
+        if(cells[index] != 0) {
+            markChanged(index);
+        }
+        uncount(cells[index]);
+        cells[index] = 0;
+        occupants[index] = null;
     }
     
     /**
@@ -64,7 +309,7 @@ public class Field
      */
     public void place(Object actor, int row, int col)
     {
-        place(actor, new Location(row, col));
+        place(actor, getLocation(row, col));
     }
     
     /**
@@ -76,9 +321,49 @@ public class Field
      */
     public void place(Object actor, Location location)
     {
-        field[location.getRow()][location.getCol()] = actor;
+        int index = location.getRow() * width + location.getCol();
+        int tag = tagOf(actor);
+        // Any actor already here is lost.
+        uncount(cells[index]);
+        if(tag != 0) {
+            counts[Species.idOf(tag)].increment();
+        }
+        if(cells[index] != tag) {
+            markChanged(index);
+        }
+        cells[index] = tag;
+        occupants[index] = actor;
+    }
+
+    /**
+     * Return how many actors of the given species are in the field.
+     * @param id The id of the species.
+     * @return The number of that species in the field.
+     */
+    public int getCount(int id)
+    {
+        return counts[id].intValue();
+    }
+
+    /**
+     * Return how many actors of the given species are in the field.
+     * @param species The species.
+     * @return The number of that species in the field.
+     */
+    public int getCount(Species species)
+    {
+        return counts[species.getId()].intValue();
     }
     
+    /**
+     * Copy the tag of every cell, row by row, into an array.
+     * @param tags The array to copy into, at least depth * width long.
+     */
+    public void copyTags(int[] tags)
+    {
+        System.arraycopy(cells, 0, tags, 0, cells.length);
+    }
+
     /**
      * Return the actor at the given location, if any.
      * @param location Where in the field.
@@ -97,7 +382,85 @@ public class Field
      */
     public Object getObjectAt(int row, int col)
     {
-        return field[row][col];
+        return occupants[row * width + col];
+    }
+
+    /**
+     * Return whether the given cell is empty.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return true if there is no actor in the cell.
+     */
+    public boolean isEmpty(int row, int col)
+    {
+        return cells[row * width + col] == 0;
+    }
+
+    /**
+     * Return the species tag of the actor in the given cell.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The occupant's tag, or 0 if the cell is empty.
+     */
+    public int getTagAt(int row, int col)
+    {
+        return cells[row * width + col];
+    }
+
+    /**
+     * Return the kind of actor in the given cell.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return One of the Species KIND constants; KIND_OTHER if the
+     *         cell is empty.
+     */
+    public int getKindAt(int row, int col)
+    {
+        return Species.kindOf(cells[row * width + col]);
+    }
+
+    /**
+     * Return the id of the species in the given cell.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The occupant's species id, or 0 if the cell is empty.
+     */
+    public int getSpeciesIdAt(int row, int col)
+    {
+        return Species.idOf(cells[row * width + col]);
+    }
+
+    /**
+     * Take the occupant of a cell out of the species counts.
+     * @param tag The tag of the cell, 0 if it is empty.
+     */
+    private void uncount(int tag)
+    {
+        if(tag != 0) {
+            counts[Species.idOf(tag)].decrement();
+        }
+    }
+
+    /**
+     * Work out the tag to store for an object placed in the field.
+     * @param actor The object being placed, may be null.
+     * @return The tag for the object's species.
+     */
+    private static int tagOf(Object actor)
+    {
+        if(actor == null) {
+            return 0;
+        }
+        else if(actor instanceof Actor) {
+            return ((Actor) actor).getSpecies().getTag();
+        }
+        else if(actor instanceof Species) {
+            // A field rebuilt from an event log holds species.
+            return ((Species) actor).getTag();
+        }
+        else {
+            return Species.OTHER.getTag();
+        }
     }
     
     /**
@@ -124,7 +487,7 @@ public class Field
         List<Location> free = new LinkedList<>();
         List<Location> adjacent = adjacentLocations(location);
         for(Location next : adjacent) {
-            if(getObjectAt(next) == null) {
+            if(isEmpty(next.getRow(), next.getCol())) {
                 free.add(next);
             }
         }
@@ -141,14 +504,96 @@ public class Field
      */
     public Location freeAdjacentLocation(Location location)
     {
-        // The available free ones.
-        List<Location> free = getFreeAdjacentLocations(location);
-        if(free.size() > 0) {
-            return free.get(0);
+        return findAdjacent(location, this, FREE_CELL);
+    }
+
+    /**
+     * Count the free locations adjacent to the given one.
+     * @param location The location whose neighbours are counted.
+     * @return The number of free adjacent locations.
+     */
+    public int countFreeAdjacent(Location location)
+    {
+        int row = location.getRow();
+        int col = location.getCol();
+        int free = 0;
+        for(int d = 0; d < ROW_OFFSETS.length; d++) {
+            int nextRow = row + ROW_OFFSETS[d];
+            int nextCol = col + COL_OFFSETS[d];
+            if(nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+               && cells[nextRow * width + nextCol] == 0) {
+                free++;
+            }
         }
-        else {
-            return null;
+        return free;
+    }
+
+    /**
+     * Walk the locations adjacent to the given one, offering each
+     * to the visitor until it accepts one. The walk starts at a
+     * random neighbour and goes round in a random direction, so
+     * the neighbours are seen in a random order without a list of
+     * them having to be built and shuffled.
+     * @param location The location whose neighbours are visited.
+     * @param subject The object handed back to the visitor.
+     * @param visitor Decides whether to stop at each neighbour.
+     * @return The location the visitor stopped at, or null if
+     *         it accepted none of them.
+     */
+    public <T> Location findAdjacent(Location location, T subject, NeighbourVisitor<T> visitor)
+    {
+        int row = location.getRow();
+        int col = location.getCol();
+        // The low three bits pick the starting neighbour, the
+        // next bit picks clockwise or anticlockwise.
+        int pick = rand.nextInt(16);
+        int direction = pick < 8 ? 1 : 7;
+        int d = pick & 7;
+        for(int i = 0; i < 8; i++) {
+            int nextRow = row + ROW_OFFSETS[d];
+            int nextCol = col + COL_OFFSETS[d];
+            if(nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+               && visitor.visit(subject, nextRow, nextCol)) {
+                return locations[nextRow * width + nextCol];
+            }
+            d = (d + direction) & 7;
+        }
+        return null;
+    }
+
+    /**
+     * Walk the locations adjacent to the given one in the same
+     * random order as findAdjacent, and return the one the scorer
+     * scores highest. Neighbours scoring zero or less are never
+     * chosen, and of equal scores the first met is.
+     * @param location The location whose neighbours are scored.
+     * @param subject The object handed back to the scorer.
+     * @param scorer Scores each neighbour.
+     * @return The best scoring location, or null if none scored
+     *         above zero.
+     */
+    public <T> Location findBestAdjacent(Location location, T subject, NeighbourScorer<T> scorer)
+    {
+        int row = location.getRow();
+        int col = location.getCol();
+        int pick = rand.nextInt(16);
+        int direction = pick < 8 ? 1 : 7;
+        int d = pick & 7;
+        int best = -1;
+        int bestScore = 0;
+        for(int i = 0; i < 8; i++) {
+            int nextRow = row + ROW_OFFSETS[d];
+            int nextCol = col + COL_OFFSETS[d];
+            if(nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width) {
+                int score = scorer.score(subject, nextRow, nextCol);
+                if(score > bestScore) {
+                    best = nextRow * width + nextCol;
+                    bestScore = score;
+                }
+            }
+            d = (d + direction) & 7;
         }
+        return best < 0 ? null : locations[best];
     }
 
     /**
@@ -173,7 +618,7 @@ public class Field
                         int nextCol = col + coffset;
                         // Exclude invalid locations and the original location.
                         if(nextCol >= 0 && nextCol < width && (roffset != 0 || coffset != 0)) {
-                            locations.add(new Location(nextRow, nextCol));
+                            locations.add(getLocation(nextRow, nextCol));
                         }
                     }
                 }
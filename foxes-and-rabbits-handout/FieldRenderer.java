@@ -0,0 +1,95 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Draws snapshots of a field into an image with one pixel per cell,
+ * by writing each cell's species colour straight into the int array
+ * behind the image. It needs no display, so it can be used, and
+ * measured, without a window.
+ *
+ * Only the cells that changed since the last snapshot drawn are
+ * written, unless the snapshot asks for every cell or so many
+ * changed that writing them all is as quick.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class FieldRenderer
+{
+    // Colors used for empty locations.
+    private static final Color EMPTY_COLOR = Color.white;
+
+    // Color used for objects that have no defined color.
+    private static final Color UNKNOWN_COLOR = Color.gray;
+
+    // The fraction of changed cells above which every cell is drawn.
+    private static final double REDRAW_ALL_FRACTION = 0.25;
+
+    // The field drawn with one pixel per cell.
+    private final BufferedImage image;
+    // The pixels of the image, one int per cell, row by row.
+    private final int[] pixels;
+    // The RGB color of each species in the simulation, indexed by id.
+    private final int[] colors;
+
+    /**
+     * Create a renderer for a field of the given size.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     */
+    public FieldRenderer(int depth, int width)
+    {
+        image = new BufferedImage(width, depth, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        colors = new int[Species.count() + 1];
+        Arrays.fill(colors, UNKNOWN_COLOR.getRGB());
+        colors[0] = EMPTY_COLOR.getRGB();
+    }
+
+    /**
+     * Define a color to be used for a given species.
+     * @param species The species.
+     * @param color The color to be used for the given species.
+     */
+    public void setColor(Species species, Color color)
+    {
+        colors[species.getId()] = color.getRGB();
+    }
+
+    /**
+     * @return The image the field is drawn into.
+     */
+    public BufferedImage getImage()
+    {
+        return image;
+    }
+
+    /**
+     * Draw the cells of a snapshot that have changed into the
+     * image, in the color of their species, or every cell if
+     * the snapshot asks for it or most of them have changed.
+     * @param snapshot The snapshot to draw.
+     */
+    public void draw(FieldSnapshot snapshot)
+    {
+        if(snapshot.isRedrawAll()
+           || snapshot.countChanges() > pixels.length * REDRAW_ALL_FRACTION) {
+            for(int i = 0; i < pixels.length; i++) {
+                // Empty cells have species id 0, which is the empty color.
+                pixels[i] = colors[Species.idOf(snapshot.getTagAt(i))];
+            }
+            return;
+        }
+        for(int word = 0; word < snapshot.getChangeWords(); word++) {
+            long bits = snapshot.getChanges(word);
+            while(bits != 0) {
+                int i = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                pixels[i] = colors[Species.idOf(snapshot.getTagAt(i))];
+                // Clear the lowest bit set.
+                bits &= bits - 1;
+            }
+        }
+    }
+}
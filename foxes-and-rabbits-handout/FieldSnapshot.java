@@ -0,0 +1,185 @@
+/**
+ * A copy of what a view needs to draw one step of a simulation: the
+ * species tag of every cell, which cells have changed since the last
+ * snapshot drawn, the count of each species, the step, the time of
+ * day and the weather.
+ *
+ * A snapshot is filled in by the simulation's thread and then handed
+ * to a view's render thread, after which it is only read until the
+ * view gives it back to be filled again. It is never changed while
+ * both threads can see it.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class FieldSnapshot
+{
+    private final int depth;
+    private final int width;
+    // The species tag of each cell, row by row.
+    private final int[] tags;
+    // One bit per cell, set if the cell changed since the last
+    // snapshot drawn, as taken from the field.
+    private final long[] changes;
+    // Whether every cell must be drawn, whatever has changed.
+    private boolean redrawAll;
+    // The number of each species, indexed by species id.
+    private final int[] counts;
+    private int step;
+    private boolean isDay;
+    private WeatherState weather;
+
+    /**
+     * Create an empty snapshot of a field of the given size.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     */
+    public FieldSnapshot(int depth, int width)
+    {
+        this.depth = depth;
+        this.width = width;
+        tags = new int[depth * width];
+        changes = new long[Field.changeWords(depth * width)];
+        counts = new int[Species.count() + 1];
+    }
+
+    /**
+     * Copy the state of the field into the snapshot, taking the
+     * field's changes.
+     * @param step Which iteration step it is.
+     * @param field The field, the same size as the snapshot.
+     * @param isDay Whether it is currently day.
+     * @param weather The current weather.
+     */
+    public void capture(int step, Field field, boolean isDay, WeatherState weather)
+    {
+        this.step = step;
+        this.isDay = isDay;
+        this.weather = weather;
+        field.copyTags(tags);
+        field.takeChanges(changes);
+        redrawAll = false;
+        for(int id = 1; id < counts.length; id++) {
+            counts[id] = field.getCount(id);
+        }
+    }
+
+    /**
+     * @return The depth of the field.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return The width of the field.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Return the species tag of a cell.
+     * @param index The cell's index, row * width + col.
+     * @return The tag, or 0 if the cell was empty.
+     */
+    public int getTagAt(int index)
+    {
+        return tags[index];
+    }
+
+    /**
+     * Add the changes of an older snapshot that will not be drawn,
+     * so that they are drawn with this one.
+     * @param older The older snapshot.
+     */
+    public void addChanges(FieldSnapshot older)
+    {
+        for(int word = 0; word < changes.length; word++) {
+            changes[word] |= older.changes[word];
+        }
+        redrawAll |= older.redrawAll;
+    }
+
+    /**
+     * Mark every cell to be drawn, whatever has changed.
+     */
+    public void setRedrawAll()
+    {
+        redrawAll = true;
+    }
+
+    /**
+     * @return Whether every cell must be drawn.
+     */
+    public boolean isRedrawAll()
+    {
+        return redrawAll;
+    }
+
+    /**
+     * Return 64 bits of the changed cells. Bit i % 64 of word
+     * i / 64 is set if cell i changed.
+     * @param word The index of the word.
+     * @return The bits.
+     */
+    public long getChanges(int word)
+    {
+        return changes[word];
+    }
+
+    /**
+     * @return The number of words of changed cells.
+     */
+    public int getChangeWords()
+    {
+        return changes.length;
+    }
+
+    /**
+     * @return The number of cells that changed.
+     */
+    public int countChanges()
+    {
+        int count = 0;
+        for(long word : changes) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param id The id of a species.
+     * @return The number of that species in the field.
+     */
+    public int getCount(int id)
+    {
+        return counts[id];
+    }
+
+    /**
+     * @return The step the snapshot was taken at.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * @return Whether it was day.
+     */
+    public boolean isDay()
+    {
+        return isDay;
+    }
+
+    /**
+     * @return The weather.
+     */
+    public WeatherState getWeather()
+    {
+        return weather;
+    }
+}
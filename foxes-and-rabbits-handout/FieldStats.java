@@ -1,30 +1,27 @@
-import java.awt.Color;
-import java.util.HashMap;
-
 /**
  * This class collects and provides some statistical data on the state 
- * of a field. It is flexible: it will create and maintain a counter 
- * for any class of object that is found within the field.
+ * of a field. The field keeps a running count of each species as
+ * actors are placed in it and cleared from it, so the statistics are
+ * read from those counts rather than by scanning every cell.
  * 
  * @author David J. Barnes and Michael Kölling
  * @version 2016.02.29
  */
 public class FieldStats
 {
-    // Counters for each type of entity in the simulation.
-    private HashMap<Class, Counter> counters;
-    // Whether the counters are currently up to date.
-    private boolean countsValid;
+    // Counters for each species, indexed by species id.
+    private Counter[] counters;
 
     /**
      * Construct a FieldStats object.
      */
     public FieldStats()
     {
-        // Set up a collection for counters for each type of actor that
-        // we might find
-        counters = new HashMap<>();
-        countsValid = true;
+        // Set up a counter for each species that we might find.
+        counters = new Counter[Species.count() + 1];
+        for(int id = 1; id < counters.length; id++) {
+            counters[id] = new Counter(Species.byId(id).getName());
+        }
     }
 
     /**
@@ -33,55 +30,52 @@ public class FieldStats
      */
     public String getPopulationDetails(Field field)
     {
-        StringBuffer buffer = new StringBuffer();
-        if(!countsValid) {
-            generateCounts(field);
-        }
-        for(Class key : counters.keySet()) {
-            Counter info = counters.get(key);
-            buffer.append(info.getName());
-            buffer.append(": ");
-            buffer.append(info.getCount());
-            buffer.append(' ');
-        }
-        return buffer.toString();
+        generateCounts(field);
+        return describeCounts();
     }
-    
+
     /**
-     * Invalidate the current set of statistics; reset all 
-     * counts to zero.
+     * Get details of what was in the field when a snapshot of it
+     * was taken.
+     * @param snapshot The snapshot.
+     * @return A string describing what was in the field.
      */
-    public void reset()
+    public String getPopulationDetails(FieldSnapshot snapshot)
     {
-        countsValid = false;
-        for(Class key : counters.keySet()) {
-            Counter count = counters.get(key);
-            count.reset();
+        for(int id = 1; id < counters.length; id++) {
+            counters[id].setCount(snapshot.getCount(id));
         }
+        return describeCounts();
     }
 
     /**
-     * Increment the count for one class of actor.
-     * @param actorClass The class of actor to increment.
+     * Describe the counts held by the counters.
+     * @return A string listing each species and its count.
      */
-    public void incrementCount(Class actorClass)
+    private String describeCounts()
     {
-        Counter count = counters.get(actorClass);
-        if(count == null) {
-            // We do not have a counter for this species yet.
-            // Create one.
-            count = new Counter(actorClass.getName());
-            counters.put(actorClass, count);
+        StringBuffer buffer = new StringBuffer();
+        for(int id = 1; id < counters.length; id++) {
+            Counter info = counters[id];
+            // Only mention objects that are not actors if there are any.
+            if(info.getCount() > 0 || id != Species.OTHER.getId()) {
+                buffer.append(info.getName());
+                buffer.append(": ");
+                buffer.append(info.getCount());
+                buffer.append(' ');
+            }
         }
-        count.increment();
+        return buffer.toString();
     }
-
+    
     /**
-     * Indicate that an actor count has been completed.
+     * Reset all counts to zero.
      */
-    public void countFinished()
+    public void reset()
     {
-        countsValid = true;
+        for(int id = 1; id < counters.length; id++) {
+            counters[id].reset();
+        }
     }
 
     /**
@@ -93,12 +87,9 @@ public class FieldStats
     {
         // How many counts are non-zero.
         int nonZero = 0;
-        if(!countsValid) {
-            generateCounts(field);
-        }
-        for(Class key : counters.keySet()) {
-            Counter info = counters.get(key);
-            if(info.getCount() > 0) {
+        generateCounts(field);
+        for(int id = 1; id < counters.length; id++) {
+            if(counters[id].getCount() > 0) {
                 nonZero++;
             }
         }
@@ -106,23 +97,15 @@ public class FieldStats
     }
     
     /**
-     * Generate counts of the number of foxes and rabbits.
-     * These are not kept up to date as foxes and rabbits
-     * are placed in the field, but only when a request
-     * is made for the information.
+     * Copy the field's running count of each species into the
+     * counters. This takes time in proportion to the number of
+     * species, not the size of the field.
      * @param field The field to generate the stats for.
      */
     private void generateCounts(Field field)
     {
-        reset();
-        for(int row = 0; row < field.getDepth(); row++) {
-            for(int col = 0; col < field.getWidth(); col++) {
-                Object actor = field.getObjectAt(row, col);
-                if(actor != null) {
-                    incrementCount(actor.getClass());
-                }
-            }
+        for(int id = 1; id < counters.length; id++) {
+            counters[id].setCount(field.getCount(id));
         }
-        countsValid = true;
     }
 }
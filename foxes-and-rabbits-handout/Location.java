@@ -1,5 +1,8 @@
 /**
  * Represent a location in a rectangular grid.
+ * Locations are immutable. A field hands out one shared location
+ * per cell (see Field.getLocation), so locations obtained from the
+ * same field are equal exactly when they are the same object.
  * 
  * @author David J. Barnes and Michael Kölling
  * @version 2016.02.29
@@ -7,8 +10,8 @@
 public class Location
 {
     // Row and column positions.
-    private int row;
-    private int col;
+    private final int row;
+    private final int col;
 
     /**
      * Represent a row and column.
@@ -26,7 +29,10 @@ public class Location
      */
     public boolean equals(Object obj)
     {
-        if(obj instanceof Location) {
+        if(obj == this) {
+            return true;
+        }
+        else if(obj instanceof Location) {
             Location other = (Location) obj;
             return row == other.getRow() && col == other.getCol();
         }
@@ -0,0 +1,19 @@
+/**
+ * Scores the cells around a location, one at a time, for
+ * Field.findBestAdjacent. The cell is given as a plain row and
+ * column so that no Location needs to be created to look at it.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface NeighbourScorer<T>
+{
+    /**
+     * Score one of the neighbouring cells.
+     * @param subject The object the walk was started for.
+     * @param row The row of the neighbouring cell.
+     * @param col The column of the neighbouring cell.
+     * @return The cell's score, or zero or less if it is not wanted.
+     */
+    int score(T subject, int row, int col);
+}
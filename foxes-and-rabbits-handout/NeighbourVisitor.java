@@ -0,0 +1,19 @@
+/**
+ * A visitor that is offered the cells around a location, one at
+ * a time, by Field.findAdjacent. The cell is given as a plain row
+ * and column so that no Location needs to be created to look at it.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface NeighbourVisitor<T>
+{
+    /**
+     * Look at one of the neighbouring cells.
+     * @param subject The object the walk was started for.
+     * @param row The row of the neighbouring cell.
+     * @param col The column of the neighbouring cell.
+     * @return true to stop the walk at this cell.
+     */
+    boolean visit(T subject, int row, int col);
+}
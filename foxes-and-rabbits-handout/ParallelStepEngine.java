@@ -0,0 +1,247 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A step engine that splits the field into square tiles and lets the
+ * actors of several tiles act at the same time on a fork/join pool.
+ * 
+ * An actor only looks at, moves into, eats from or gives birth into
+ * the cells next to it, so everything it touches lies within one cell
+ * of its own tile. The tiles are coloured like a 2x2 checkerboard and
+ * one colour is run at a time. Two tiles of the same colour have a
+ * whole tile between them, so the cells their actors touch never
+ * overlap and no two threads race on a cell.
+ * 
+ * Each actor is put in the tile it stands in when the group starts,
+ * so it acts exactly once even if it moves into a tile that runs
+ * later. Within a tile actors act in their group order, and births
+ * are gathered tile by tile. Each actor draws from its own random
+ * stream, seeded from its cell, so the outcome does not depend on
+ * which thread ran which tile or on how many threads there are.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class ParallelStepEngine implements StepEngine
+{
+    // The default width and height of a tile, in cells.
+    private static final int DEFAULT_TILE_SIZE = 16;
+    // The smallest tile that keeps tiles of one colour apart.
+    private static final int MIN_TILE_SIZE = 3;
+    // The number of tile colours.
+    private static final int COLOURS = 4;
+
+    // The width and height of a tile, in cells.
+    private final int tileSize;
+    // The threads that run the tiles.
+    private final ForkJoinPool pool;
+
+    // The number of rows and columns of tiles.
+    private int tilesDown, tilesAcross;
+    // The actors standing in each tile when the group started.
+    private ActorRegistry[] tileActors;
+    // The actors born in each tile.
+    private List<List<Actor>> tileBirths;
+    // The tiles of each colour.
+    private int[][] colourTiles;
+    // The width of the field being run.
+    private int fieldWidth;
+    // The seed of the group being run.
+    private long groupSeed;
+    // The metrics of the step being run, and whether they are timing.
+    private StepMetrics metrics;
+    private boolean timing;
+
+    /**
+     * Create an engine with the default tile size, using one thread
+     * per available processor.
+     */
+    public ParallelStepEngine()
+    {
+        this(DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an engine.
+     * @param tileSize The width and height of a tile, in cells. Sizes
+     *                 below 3 are raised to 3.
+     * @param parallelism The number of threads to use.
+     */
+    public ParallelStepEngine(int tileSize, int parallelism)
+    {
+        this.tileSize = Math.max(tileSize, MIN_TILE_SIZE);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Let every live actor in a group act once, running the tiles
+     * of each colour in parallel.
+     * @param group The actors to act.
+     * @param field The field the actors are in.
+     * @param newActors A list to receive newly born actors.
+     * @param seed The seed of the group's turn.
+     * @param metrics The step's metrics.
+     */
+    public void act(ActorRegistry group, Field field, List<Actor> newActors, long seed,
+                    StepMetrics metrics)
+    {
+        layoutTiles(field);
+        fieldWidth = field.getWidth();
+        groupSeed = seed;
+        this.metrics = metrics;
+        timing = metrics.isTiming();
+
+        // Put each live actor in the tile it stands in.
+        int count = group.size();
+        for(int i = 0; i < count; i++) {
+            Actor actor = group.get(i);
+            if(actor.isAlive()) {
+                Location location = actor.getLocation();
+                int tile = (location.getRow() / tileSize) * tilesAcross
+                           + location.getCol() / tileSize;
+                tileActors[tile].add(actor);
+            }
+        }
+
+        for(int colour = 0; colour < COLOURS; colour++) {
+            int[] tiles = colourTiles[colour];
+            if(tiles.length > 0) {
+                pool.invoke(new TileRun(tiles, 0, tiles.length));
+            }
+        }
+
+        // Gather the births in tile order.
+        for(int tile = 0; tile < tileActors.length; tile++) {
+            List<Actor> births = tileBirths.get(tile);
+            newActors.addAll(births);
+            births.clear();
+            tileActors[tile].clear();
+        }
+    }
+
+    /**
+     * Stop the engine's threads. The engine cannot be used after this.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Let the actors in one tile act, in order.
+     * @param tile The index of the tile.
+     */
+    private void runTile(int tile)
+    {
+        ActorRegistry actors = tileActors[tile];
+        List<Actor> births = tileBirths.get(tile);
+        int count = actors.size();
+        for(int i = 0; i < count; i++) {
+            Actor actor = actors.get(i);
+            // It may have been eaten by an actor in an earlier tile.
+            if(actor.isAlive()) {
+                Location location = actor.getLocation();
+                Randomizer.useStream(groupSeed, location.getRow() * fieldWidth + location.getCol());
+                if(timing) {
+                    metrics.timeAct(actor, births);
+                }
+                else {
+                    actor.act(births);
+                }
+            }
+        }
+    }
+
+    /**
+     * Work out the tiles for the given field, unless they are already
+     * laid out for a field of its size.
+     * @param field The field to be tiled.
+     */
+    @SuppressWarnings("unchecked")
+    private void layoutTiles(Field field)
+    {
+        int down = (field.getDepth() + tileSize - 1) / tileSize;
+        int across = (field.getWidth() + tileSize - 1) / tileSize;
+        if(tileActors != null && down == tilesDown && across == tilesAcross) {
+            return;
+        }
+        tilesDown = down;
+        tilesAcross = across;
+        int tiles = down * across;
+        tileActors = new ActorRegistry[tiles];
+        tileBirths = new ArrayList<>(tiles);
+        for(int tile = 0; tile < tiles; tile++) {
+            tileActors[tile] = new ActorRegistry();
+            tileBirths.add(new ArrayList<>());
+        }
+
+        // Colour each tile by whether its row and column are odd.
+        int[] perColour = new int[COLOURS];
+        for(int row = 0; row < down; row++) {
+            for(int col = 0; col < across; col++) {
+                perColour[colourOf(row, col)]++;
+            }
+        }
+        colourTiles = new int[COLOURS][];
+        for(int colour = 0; colour < COLOURS; colour++) {
+            colourTiles[colour] = new int[perColour[colour]];
+            perColour[colour] = 0;
+        }
+        for(int row = 0; row < down; row++) {
+            for(int col = 0; col < across; col++) {
+                int colour = colourOf(row, col);
+                colourTiles[colour][perColour[colour]++] = row * across + col;
+            }
+        }
+    }
+
+    /**
+     * @return The colour of the tile in the given tile row and column.
+     */
+    private static int colourOf(int row, int col)
+    {
+        return (row % 2) * 2 + (col % 2);
+    }
+
+    /**
+     * A task running a range of the tiles of one colour, splitting
+     * itself in half until each task runs a single tile.
+     */
+    private class TileRun extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // The tiles of the colour being run.
+        private final int[] tiles;
+        // The range of tiles this task runs.
+        private final int from, to;
+
+        /**
+         * @param tiles The tiles of the colour being run.
+         * @param from The first tile to run.
+         * @param to One past the last tile to run.
+         */
+        public TileRun(int[] tiles, int from, int to)
+        {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Run the tiles, forking if there is more than one.
+         */
+        protected void compute()
+        {
+            if(to - from == 1) {
+                runTile(tiles[from]);
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileRun(tiles, from, middle), new TileRun(tiles, middle, to));
+            }
+        }
+    }
+}
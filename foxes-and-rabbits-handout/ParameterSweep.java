@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Run the simulation at many points in a space of parameters, in
+ * parallel and headless, and write how each species fared at each
+ * point to a ColumnTable.
+ *
+ * The space is given as a range for each parameter swept, by the
+ * names SimulationParameters uses; the rest keep the values of the
+ * base parameters. The points can be a regular grid over the ranges
+ * or a Latin hypercube sample, which covers every range evenly with
+ * far fewer points when many parameters are swept.
+ *
+ * The table has a row per point. Its columns are the point's index,
+ * the value of each swept parameter, the number of steps
+ * run before the run stopped or a species died out, and for each
+ * species its final count and its mean count over the steps run,
+ * named like "Mouse.final" and "Mouse.mean".
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class ParameterSweep
+{
+    private final int depth;
+    private final int width;
+    private final int steps;
+    private final SimulationParameters base;
+    // The names of the parameters swept, and their ranges.
+    private final List<String> names = new ArrayList<>();
+    private final List<double[]> ranges = new ArrayList<>();
+    // The number of points run at once.
+    private int threads;
+
+    /**
+     * Create a sweep of simulations with the given field size.
+     * @param depth The depth of each field.
+     * @param width The width of each field.
+     * @param steps The most steps each point runs for.
+     * @param base The parameters the points start from.
+     */
+    public ParameterSweep(int depth, int width, int steps, SimulationParameters base)
+    {
+        this.depth = depth;
+        this.width = width;
+        this.steps = steps;
+        this.base = new SimulationParameters(base);
+        threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sweep a parameter over a range.
+     * @param name The parameter's name, such as "Mouse.breedingAge".
+     * @param min The lowest value.
+     * @param max The highest value.
+     * @throws IllegalArgumentException If there is no such parameter.
+     */
+    public void addRange(String name, double min, double max)
+    {
+        // Check the name before it is used.
+        base.get(name);
+        names.add(name);
+        ranges.add(new double[] { min, max });
+    }
+
+    /**
+     * Set the number of points run at once. This defaults to the
+     * number of processors.
+     * @param threads The number of threads.
+     */
+    public void setThreads(int threads)
+    {
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Make the points of a regular grid over the ranges, with the
+     * given number of evenly spaced values of each parameter,
+     * including both ends of its range.
+     * @param levels The number of values of each parameter.
+     * @return The points, levels to the power of the number of
+     *         parameters swept.
+     */
+    public List<SimulationParameters> grid(int levels)
+    {
+        List<SimulationParameters> points = new ArrayList<>();
+        int[] level = new int[names.size()];
+        do {
+            SimulationParameters point = new SimulationParameters(base);
+            for(int p = 0; p < level.length; p++) {
+                double[] range = ranges.get(p);
+                double fraction = levels > 1 ? level[p] / (double) (levels - 1) : 0.5;
+                point.set(names.get(p), range[0] + (range[1] - range[0]) * fraction);
+            }
+            points.add(point);
+        } while(nextLevel(level, levels));
+        return points;
+    }
+
+    /**
+     * Make the points of a Latin hypercube sample over the ranges.
+     * Each range is cut into as many equal strata as there are
+     * points, and each stratum of each parameter holds exactly one
+     * point, at a random place within it.
+     * @param samples The number of points.
+     * @param seed The seed of the sample.
+     * @return The points.
+     */
+    public List<SimulationParameters> latinHypercube(int samples, long seed)
+    {
+        RandomStream rand = new RandomStream(seed);
+        List<SimulationParameters> points = new ArrayList<>();
+        for(int s = 0; s < samples; s++) {
+            points.add(new SimulationParameters(base));
+        }
+        for(int p = 0; p < names.size(); p++) {
+            double[] range = ranges.get(p);
+            int[] strata = shuffledStrata(samples, rand);
+            for(int s = 0; s < samples; s++) {
+                double fraction = (strata[s] + rand.nextDouble()) / samples;
+                points.get(s).set(names.get(p), range[0] + (range[1] - range[0]) * fraction);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Run the simulation at each point. Point i uses the seed derived
+     * from the base seed and i, so the same base seed gives the same
+     * runs.
+     * @param points The points, as made by grid or latinHypercube.
+     * @param baseSeed The seed the points' seeds are derived from.
+     * @param output The file to write the table to, or null not to
+     *               write it.
+     * @return The table of results.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws IOException If the table cannot be written.
+     */
+    public ColumnTable run(List<SimulationParameters> points, long baseSeed, Path output)
+        throws InterruptedException, IOException
+    {
+        ColumnTable table = new ColumnTable(columnNames(), points.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for(int i = 0; i < points.size(); i++) {
+                int row = i;
+                long seed = Randomizer.deriveSeed(baseSeed, i);
+                SimulationParameters point = points.get(i);
+                runs.add(pool.submit(() -> runPoint(row, point, seed, table)));
+            }
+            for(Future<?> run : runs) {
+                try {
+                    run.get();
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException("A point failed.", e.getCause());
+                }
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        if(output != null) {
+            table.write(output);
+        }
+        return table;
+    }
+
+    /**
+     * Run the simulation at one point and fill in its row. Each run
+     * writes only its own row, so the runs need no locking.
+     * @param row The point's row of the table.
+     * @param point The point.
+     * @param seed The seed of the run.
+     * @param table Where to write the results.
+     */
+    private void runPoint(int row, SimulationParameters point, long seed, ColumnTable table)
+    {
+        int speciesCount = Species.count();
+        long[] totals = new long[speciesCount + 1];
+        int[] finals = new int[speciesCount + 1];
+        int[] stepsRun = new int[1];
+        Simulator simulator = new Simulator(depth, width, false, point, seed);
+        // The observer is shown step 0 as it is attached.
+        simulator.addObserver((step, field, isDay, weather) -> {
+            stepsRun[0] = step;
+            for(int id = 1; id <= speciesCount; id++) {
+                finals[id] = field.getCount(id);
+                totals[id] += finals[id];
+            }
+        });
+        for(int step = 1; step <= steps && simulator.isViable(); step++) {
+            simulator.simulateOneStep();
+        }
+
+        int column = 0;
+        table.set(row, column++, row);
+        for(String name : names) {
+            table.set(row, column++, point.get(name));
+        }
+        table.set(row, column++, stepsRun[0]);
+        for(int id = 1; id <= speciesCount; id++) {
+            if(Species.byId(id).getKind() != Species.KIND_OTHER) {
+                table.set(row, column++, finals[id]);
+                table.set(row, column++, totals[id] / (double) (stepsRun[0] + 1));
+            }
+        }
+    }
+
+    /**
+     * @return The names of the columns of the table.
+     */
+    private List<String> columnNames()
+    {
+        List<String> columns = new ArrayList<>();
+        columns.add("point");
+        columns.addAll(names);
+        columns.add("steps");
+        for(int id = 1; id <= Species.count(); id++) {
+            Species species = Species.byId(id);
+            if(species.getKind() != Species.KIND_OTHER) {
+                columns.add(species.getName() + ".final");
+                columns.add(species.getName() + ".mean");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Move to the next point of a grid, like counting in base levels.
+     * @param level The level of each parameter, changed in place.
+     * @param levels The number of levels.
+     * @return false once every point has been made.
+     */
+    private static boolean nextLevel(int[] level, int levels)
+    {
+        for(int p = 0; p < level.length; p++) {
+            if(++level[p] < levels) {
+                return true;
+            }
+            level[p] = 0;
+        }
+        return false;
+    }
+
+    /**
+     * @return The numbers 0 to n - 1 in a random order.
+     */
+    private static int[] shuffledStrata(int n, RandomStream rand)
+    {
+        int[] strata = new int[n];
+        for(int i = 0; i < n; i++) {
+            strata[i] = i;
+        }
+        for(int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int swap = strata[i];
+            strata[i] = strata[j];
+            strata[j] = swap;
+        }
+        return strata;
+    }
+}
@@ -1,5 +1,7 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -20,31 +22,17 @@ public class Plant implements Actor
     // The plant's position in the field.
     private Location location;
 
-    private boolean drawable;
+    // The plant's species.
+    private final Species species;
 
-    private List<Location> freeAdjacentLocations;
-
-    // The age at which a fox can start to breed.
-    private static final int BREEDING_AGE = 10;
-    // The age to which a fox can live.
-    private static final int MAX_AGE = 40;
-    // The likelihood of a fox breeding.
-    private static final double BREEDING_PROBABILITY = 0.1;
-    // The maximum number of births.
-    private static final int MAX_LITTER_SIZE = 8;
-    // The food value of a single rabbit. In effect, this is the
-    // number of steps a fox can go before it has to eat again.
-    private static final int FOOD_VALUE = 5;
-
-    private static final boolean IS_NOCTURNAL = false;
+    // The parameters the plant's life history is taken from.
+    private final SimulationParameters parameters;
 
     private int age;
 
-    private int diseaseCount;
-
     /**
-     * Create a new plant at location in field give it a disease count
-     * and random age.
+     * Create a new plant at location in field and give it a random
+     * age.
      * 
      * @param field The field currently occupied.
      * @param location The location within the field.
@@ -52,18 +40,32 @@ public class Plant implements Actor
      */
     public Plant(boolean randomAge, Field field, Location location)
     {
+        this(Species.PLANT, randomAge, field, location);
+    }
+
+    /**
+     * Create a new plant of the given species at location in field and
+     * give it a random age.
+     * 
+     * @param species The plant's species.
+     * @param randomAge The starting age of a plant
+     * @param field The field currently occupied.
+     * @param location The location within the field.
+     */
+    public Plant(Species species, boolean randomAge, Field field, Location location)
+    {
+        this.species = species;
         alive = true;
         this.field = field;
+        parameters = field.getParameters();
         setLocation(location);
-        diseaseCount = 0;
+        field.getListener().born(this, location);
 
         if (randomAge) {
-            age = rand.nextInt(MAX_AGE);
+            age = rand.nextInt(getMaxAge());
         } else {
             age = 0;
         }
-
-        freeAdjacentLocations = new ArrayList<>();
     }
 
     @Override
@@ -91,12 +93,15 @@ public class Plant implements Actor
     /**
      * Indicate that the plant is no longer alive.
      * It is removed from the field.
+     * @param cause Why the plant died.
      */
-    protected void setDead()
+    public void setDead(DeathCause cause)
     {
         alive = false;
         if(location != null) {
             field.clear(location);
+            field.getListener().died(this, location, cause);
+            ActorDeathEvent.report(this, cause);
             location = null;
             field = null;
         }
@@ -106,7 +111,7 @@ public class Plant implements Actor
      * Return the plant's location.
      * @return The plant's location.
      */
-    protected Location getLocation()
+    public Location getLocation()
     {
         return location;
     }
@@ -133,16 +138,6 @@ public class Plant implements Actor
         return field;
     }
 
-    
-    /**
-     * Check if there are any objects in the locations surrounding an entity.
-     */
-    protected boolean surroundingsEmpty()
-    {
-        freeAdjacentLocations = field.getFreeAdjacentLocations(location);
-        return freeAdjacentLocations.size() <= 0;
-    }
-
     /**
      * A plant can give birth only if every location surrounding it is empty. This means they form clusters
      * of 9 that then can't grow any larger.
@@ -151,16 +146,18 @@ public class Plant implements Actor
     protected void giveBirth(List<Actor> newActors)
     {
         // New foxes are born into adjacent locations.
-        // Get a list of adjacent free locations.
+        // Each one takes the next free adjacent location.
         Field field = getField();
-        List<Location> free = field.getFreeAdjacentLocations(getLocation());
 
         int births = breed();
 
-        if (free.size() == 8) {
-            for(int b = 0; b < births && free.size() > 0; b++) {
-                Location loc = free.remove(0);
-                Plant seedling = new Plant(false, field, loc);
+        if (field.countFreeAdjacent(getLocation()) == 8) {
+            for(int b = 0; b < births; b++) {
+                Location loc = field.freeAdjacentLocation(getLocation());
+                if(loc == null) {
+                    break;
+                }
+                Plant seedling = new Plant(species, false, field, loc);
                 newActors.add(seedling);
             }
         }
@@ -174,7 +171,7 @@ public class Plant implements Actor
     protected int breed()
     {
         int births = 0;
-        if(canBreed() && rand.nextDouble() <= BREEDING_PROBABILITY) {
+        if(canBreed() && rand.nextDouble() <= parameters.getBreedingProbability(species)) {
             births = rand.nextInt(getMaxLitterSize()) + 1;
         }
         return births;
@@ -194,8 +191,8 @@ public class Plant implements Actor
     private void incrementAge()
     {
         age++;
-        if(age > MAX_AGE) {
-            setDead();
+        if(age > getMaxAge()) {
+            setDead(DeathCause.OLD_AGE);
         }
     }
 
@@ -205,7 +202,7 @@ public class Plant implements Actor
      */
     protected int getMaxAge()
     {
-        return MAX_AGE;
+        return parameters.getMaxAge(species);
     }
 
     /** 
@@ -214,7 +211,7 @@ public class Plant implements Actor
      */
     protected int getBreedingAge()
     {
-        return BREEDING_AGE;
+        return parameters.getBreedingAge(species);
     }
 
     /** 
@@ -223,7 +220,7 @@ public class Plant implements Actor
      */
     protected int getMaxLitterSize()
     {
-        return MAX_LITTER_SIZE;
+        return parameters.getMaxLitterSize(species);
     }
 
     /** 
@@ -249,7 +246,16 @@ public class Plant implements Actor
      * @return boolean value of nocturnal status.
      */
     public boolean getIsNocturnal() {
-        return IS_NOCTURNAL;
+        return species.isNocturnal();
+    }
+
+    /** 
+     * Getter method allowing the retrieval of the plant species.
+     * @return The plant's species.
+     */
+    public Species getSpecies()
+    {
+        return species;
     }
 
     /** 
@@ -258,7 +264,7 @@ public class Plant implements Actor
      */
     protected int getFoodValue()
     {
-        return FOOD_VALUE;
+        return parameters.getFoodValue(species);
     }
 
     /** 
@@ -268,4 +274,24 @@ public class Plant implements Actor
     public boolean getIsDiseased() {
         return false;
     }
+
+    /**
+     * Write the plant's age.
+     * @param out Where to write the state.
+     * @throws IOException If the state cannot be written.
+     */
+    public void writeState(DataOutput out) throws IOException
+    {
+        out.writeInt(age);
+    }
+
+    /**
+     * Read back state written by writeState.
+     * @param in Where to read the state from.
+     * @throws IOException If the state cannot be read.
+     */
+    public void readState(DataInput in) throws IOException
+    {
+        age = in.readInt();
+    }
 }
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Estimate one quantile of a stream of values without keeping the
+ * values, using the P-squared algorithm of Jain and Chlamtac. Five
+ * markers track the minimum, the maximum, the quantile and the two
+ * points half way to it, and are moved along a piecewise-parabolic
+ * curve as values arrive.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class QuantileEstimator
+{
+    // The number of markers.
+    private static final int MARKERS = 5;
+
+    // The quantile estimated, between 0 and 1.
+    private final double probability;
+    // The heights of the markers, which are the estimates.
+    private final double[] heights = new double[MARKERS];
+    // The actual positions of the markers, counting from 0.
+    private final int[] positions = new int[MARKERS];
+    // The desired positions of the markers.
+    private final double[] desired = new double[MARKERS];
+    // How far each desired position moves with each value.
+    private final double[] increments;
+    // The number of values seen.
+    private long count;
+
+    /**
+     * Create an estimator for the given quantile.
+     * @param probability The quantile, such as 0.5 for the median.
+     */
+    public QuantileEstimator(double probability)
+    {
+        if(probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1.");
+        }
+        this.probability = probability;
+        increments = new double[] { 0, probability / 2, probability, (1 + probability) / 2, 1 };
+    }
+
+    /**
+     * @return The quantile estimated.
+     */
+    public double getProbability()
+    {
+        return probability;
+    }
+
+    /**
+     * Add a value to the stream.
+     * @param value The value.
+     */
+    public void add(double value)
+    {
+        if(count < MARKERS) {
+            heights[(int) count++] = value;
+            if(count == MARKERS) {
+                Arrays.sort(heights);
+                for(int i = 0; i < MARKERS; i++) {
+                    positions[i] = i;
+                    desired[i] = 4 * increments[i];
+                }
+            }
+            return;
+        }
+        // Find the cell the value falls in, widening the ends if needed.
+        int cell;
+        if(value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        }
+        else if(value >= heights[MARKERS - 1]) {
+            heights[MARKERS - 1] = value;
+            cell = MARKERS - 2;
+        }
+        else {
+            cell = 0;
+            while(value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for(int i = cell + 1; i < MARKERS; i++) {
+            positions[i]++;
+        }
+        for(int i = 0; i < MARKERS; i++) {
+            desired[i] += increments[i];
+        }
+        // Move the middle markers towards their desired positions.
+        for(int i = 1; i < MARKERS - 1; i++) {
+            double offset = desired[i] - positions[i];
+            if((offset >= 1 && positions[i + 1] - positions[i] > 1)
+               || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double height = parabolic(i, step);
+                if(heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                }
+                else {
+                    heights[i] += step * (heights[i + step] - heights[i])
+                                  / (positions[i + step] - positions[i]);
+                }
+                positions[i] += step;
+            }
+        }
+        count++;
+    }
+
+    /**
+     * @return The number of values seen.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Return the estimate of the quantile. Until five values have
+     * been seen it is the exact quantile of those values.
+     * @return The estimate, or NaN if no values have been seen.
+     */
+    public double getEstimate()
+    {
+        if(count == 0) {
+            return Double.NaN;
+        }
+        if(count < MARKERS) {
+            double[] seen = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(seen);
+            return seen[(int) Math.round(probability * (count - 1))];
+        }
+        return heights[2];
+    }
+
+    /**
+     * Predict the height of a marker moved one position, from the
+     * parabola through it and its neighbours.
+     * @param i The marker.
+     * @param step The direction it moves, 1 or -1.
+     * @return The predicted height.
+     */
+    private double parabolic(int i, int step)
+    {
+        double below = positions[i] - positions[i - 1];
+        double above = positions[i + 1] - positions[i];
+        return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+               * ((below + step) * (heights[i + 1] - heights[i]) / above
+                  + (above - step) * (heights[i] - heights[i - 1]) / below);
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.Random;
+
+/**
+ * A fast, unsynchronized random number generator based on SplitMix64.
+ * A stream belongs to one thread at a time and is cheaply reseeded,
+ * so the simulation can give each actor its own stream for a step,
+ * derived from the run's seed, the step and the actor's cell.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class RandomStream extends Random
+{
+    private static final long serialVersionUID = 1L;
+
+    // The SplitMix64 increment, an odd approximation of 2^64 / phi.
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // The current state of the generator.
+    private long state;
+
+    /**
+     * Create a stream with the given seed.
+     * @param seed The seed of the stream.
+     */
+    public RandomStream(long seed)
+    {
+        // Random's constructor sets the seed through setSeed.
+        super(seed);
+    }
+
+    /**
+     * Restart the stream from the given seed.
+     * @param seed The new seed.
+     */
+    public void setSeed(long seed)
+    {
+        state = seed;
+    }
+
+    /**
+     * Restart the stream from a seed derived from a parent seed
+     * and a key, such as a cell index. Different keys give
+     * unrelated streams.
+     * @param parent The parent seed.
+     * @param key The key picking the stream.
+     */
+    public void reseed(long parent, long key)
+    {
+        state = derive(parent, key);
+    }
+
+    /**
+     * @return The next 64 random bits.
+     */
+    public long nextLong()
+    {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Generate the next random number, used by all of Random's
+     * other methods.
+     * @param bits The number of random bits wanted.
+     * @return An int holding that many random low bits.
+     */
+    protected int next(int bits)
+    {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    /**
+     * Derive a seed from a parent seed and a key.
+     * @param parent The parent seed.
+     * @param key The key picking the child.
+     * @return The child seed.
+     */
+    public static long derive(long parent, long key)
+    {
+        return mix(parent + mix(key * GOLDEN_GAMMA + GOLDEN_GAMMA));
+    }
+
+    /**
+     * Scramble the bits of a value (the SplitMix64 finalizer).
+     * @param z The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
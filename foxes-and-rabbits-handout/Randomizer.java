@@ -5,6 +5,11 @@ import java.util.Random;
  * randomizer, repeated runs will perform exactly the same (which helps with testing). Set 
  * 'useShared' to false to get different random behaviour every time.
  * 
+ * The shared generator does not hold any state itself. Every call is passed on to a
+ * RandomStream belonging to the calling thread, which the simulation reseeds from
+ * (seed, step, cell) before each actor acts. Threads never share a generator, and a run
+ * gives the same results however many threads step it.
+ * 
  * @author David J. Barnes and Michael Kölling
  * @version 2016.02.29
  */
@@ -12,10 +17,25 @@ public class Randomizer
 {
     // The default seed for control of randomization.
     private static final int SEED = 1111;
-    // A shared Random object, if required.
-    private static final Random rand = new Random(SEED);
     // Determine whether a shared random generator is to be provided.
     private static final boolean useShared = true;
+    // The seed runs start from: fixed if the generator is shared.
+    private static final long baseSeed = useShared ? SEED : new Random().nextLong();
+    // Each thread's own stream.
+    private static final ThreadLocal<RandomStream> streams =
+        ThreadLocal.withInitial(() -> new RandomStream(baseSeed));
+    // A shared Random object, passing every call on to the calling thread's stream.
+    private static final Random rand = new Random() {
+        protected int next(int bits)
+        {
+            return (int) (streams.get().nextLong() >>> (64 - bits));
+        }
+
+        public long nextLong()
+        {
+            return streams.get().nextLong();
+        }
+    };
 
     /**
      * Constructor for objects of class Randomizer
@@ -37,6 +57,37 @@ public class Randomizer
             return new Random();
         }
     }
+
+    /**
+     * @return The seed a simulation run starts from by default.
+     */
+    public static long getSeed()
+    {
+        return baseSeed;
+    }
+
+    /**
+     * Derive a seed for part of a run, such as one step of it.
+     * @param seed The seed of the run, or of the part containing
+     *             the new part.
+     * @param key A key for the part, such as the step number.
+     * @return The seed for that part.
+     */
+    public static long deriveSeed(long seed, long key)
+    {
+        return RandomStream.derive(seed, key);
+    }
+
+    /**
+     * Reseed the calling thread's stream for one piece of work,
+     * such as one actor's turn in a step.
+     * @param seed The seed of the step or group of work.
+     * @param key A key for the piece of work, such as a cell index.
+     */
+    public static void useStream(long seed, long key)
+    {
+        streams.get().reseed(seed, key);
+    }
     
     /**
      * Reset the randomization.
@@ -46,7 +97,7 @@ public class Randomizer
     public static void reset()
     {
         if(useShared) {
-            rand.setSeed(SEED);
+            streams.get().setSeed(SEED);
         }
     }
 }
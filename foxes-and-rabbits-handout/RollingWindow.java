@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+/**
+ * The most recent values of a measurement, up to a fixed number of
+ * them, from which quantiles such as the median can be read. Older
+ * values are dropped as new ones arrive. Values may be added on one
+ * thread and read on another.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class RollingWindow
+{
+    // The values, as a ring with next the slot of the next value.
+    private final long[] values;
+    private int next;
+    private int size;
+
+    /**
+     * Create an empty window.
+     * @param capacity The most values kept. Must be greater than zero.
+     */
+    public RollingWindow(int capacity)
+    {
+        values = new long[capacity];
+    }
+
+    /**
+     * Add a value, dropping the oldest if the window is full.
+     * @param value The value.
+     */
+    public synchronized void add(long value)
+    {
+        values[next] = value;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+    }
+
+    /**
+     * @return The number of values held.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Return a quantile of the values held: the smallest value that
+     * at least the given fraction of them are no larger than.
+     * @param probability The quantile, such as 0.5 for the median or
+     *                    0.99 for the 99th percentile.
+     * @return The quantile, or 0 if the window is empty.
+     */
+    public synchronized long getQuantile(double probability)
+    {
+        if(size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(probability * size);
+        return sorted[Math.min(Math.max(rank, 1), size) - 1];
+    }
+
+    /**
+     * Drop every value.
+     */
+    public synchronized void clear()
+    {
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Summarise a stream of values as they arrive, without keeping
+ * them: their count, mean, variance, range and chosen quantiles.
+ * The mean and variance are kept with Welford's method, which stays
+ * accurate over long streams, and the quantiles are estimated.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class RunningStatistics
+{
+    private long count;
+    private double mean;
+    // The sum of squared differences from the current mean.
+    private double squares;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private final QuantileEstimator[] quantiles;
+
+    /**
+     * Create statistics estimating the given quantiles.
+     * @param probabilities The quantiles, such as 0.5 for the median.
+     */
+    public RunningStatistics(double... probabilities)
+    {
+        quantiles = new QuantileEstimator[probabilities.length];
+        for(int i = 0; i < probabilities.length; i++) {
+            quantiles[i] = new QuantileEstimator(probabilities[i]);
+        }
+    }
+
+    /**
+     * Add a value to the stream.
+     * @param value The value.
+     */
+    public void add(double value)
+    {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squares += delta * (value - mean);
+        if(count == 1) {
+            min = value;
+            max = value;
+        }
+        else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        for(QuantileEstimator quantile : quantiles) {
+            quantile.add(value);
+        }
+    }
+
+    /**
+     * @return The number of values seen.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return The mean of the values, or 0 if there are none.
+     */
+    public double getMean()
+    {
+        return mean;
+    }
+
+    /**
+     * @return The sample variance of the values, or 0 if there are
+     *         fewer than two.
+     */
+    public double getVariance()
+    {
+        return count > 1 ? squares / (count - 1) : 0;
+    }
+
+    /**
+     * @return The sample standard deviation of the values.
+     */
+    public double getStandardDeviation()
+    {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The smallest value, or NaN if there are none.
+     */
+    public double getMin()
+    {
+        return min;
+    }
+
+    /**
+     * @return The largest value, or NaN if there are none.
+     */
+    public double getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Return the estimate of one of the quantiles given when the
+     * statistics were created.
+     * @param probability The quantile.
+     * @return Its estimate, or NaN if there are no values.
+     * @throws IllegalArgumentException If the quantile is not estimated.
+     */
+    public double getQuantile(double probability)
+    {
+        for(QuantileEstimator quantile : quantiles) {
+            if(quantile.getProbability() == probability) {
+                return quantile.getEstimate();
+            }
+        }
+        throw new IllegalArgumentException("The " + probability + " quantile is not estimated.");
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.SettingControl;
+
+/**
+ * A Flight Recorder setting that lets only one event in every so many
+ * be recorded. Its value is the interval, as a whole number. When
+ * several recordings set it, the shortest interval wins, so each gets
+ * at least the events it asked for.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class SampleSetting extends SettingControl
+{
+    // The interval used unless a recording sets one.
+    private static final long DEFAULT_INTERVAL = 100;
+
+    private volatile long interval = DEFAULT_INTERVAL;
+    // The number of events offered so far.
+    private final AtomicLong offered = new AtomicLong();
+
+    /**
+     * Decide whether the next event offered is recorded.
+     * @return true for one event in every interval.
+     */
+    public boolean sample()
+    {
+        return offered.incrementAndGet() % interval == 0;
+    }
+
+    /**
+     * Choose the shortest of the intervals the recordings set.
+     * @param values The values set by the running recordings.
+     * @return The value to use.
+     */
+    public String combine(Set<String> values)
+    {
+        long shortest = Long.MAX_VALUE;
+        for(String value : values) {
+            shortest = Math.min(shortest, parse(value));
+        }
+        return Long.toString(shortest == Long.MAX_VALUE ? DEFAULT_INTERVAL : shortest);
+    }
+
+    /**
+     * @param value The interval to use.
+     */
+    public void setValue(String value)
+    {
+        interval = parse(value);
+    }
+
+    /**
+     * @return The interval in use.
+     */
+    public String getValue()
+    {
+        return Long.toString(interval);
+    }
+
+    /**
+     * Read an interval, using the default if the value is not one.
+     * @param value The value.
+     * @return The interval, at least 1.
+     */
+    private static long parse(String value)
+    {
+        try {
+            return Math.max(Long.parseLong(value.trim()), 1);
+        }
+        catch(NumberFormatException e) {
+            return DEFAULT_INTERVAL;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.List;
+
+/**
+ * A step engine that lets the actors act one after another, in the
+ * order they are held in their group.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class SequentialStepEngine implements StepEngine
+{
+    /**
+     * Let every live actor in a group act once, in order.
+     * @param group The actors to act.
+     * @param field The field the actors are in.
+     * @param newActors A list to receive newly born actors.
+     * @param seed The seed of the group's turn.
+     * @param metrics The step's metrics.
+     */
+    public void act(ActorRegistry group, Field field, List<Actor> newActors, long seed,
+                    StepMetrics metrics)
+    {
+        boolean timing = metrics.isTiming();
+        int width = field.getWidth();
+        int count = group.size();
+        for(int i = 0; i < count; i++) {
+            Actor actor = group.get(i);
+            if(actor.isAlive()) {
+                Location location = actor.getLocation();
+                Randomizer.useStream(seed, location.getRow() * width + location.getCol());
+                if(timing) {
+                    metrics.timeAct(actor, newActors);
+                }
+                else {
+                    actor.act(newActors);
+                }
+            }
+        }
+    }
+}
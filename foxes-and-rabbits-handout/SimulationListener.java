@@ -0,0 +1,74 @@
+/**
+ * A listener told about each change a simulation makes to its
+ * field as the change happens: births, moves, kills and deaths, as
+ * well as the start of each step and the weather. Where an observer
+ * sees the field once a step has finished, a listener sees how it
+ * got there.
+ * 
+ * Every method does nothing by default. A listener may be called
+ * from several threads at once when a parallel step engine is used.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface SimulationListener
+{
+    // A listener that ignores everything.
+    SimulationListener NONE = new SimulationListener() {};
+
+    /**
+     * A step has started. Step 0 is the start of a new run, on an
+     * empty field.
+     * @param step The step that has started.
+     */
+    default void stepStarted(int step)
+    {
+    }
+
+    /**
+     * The weather has been decided for this step.
+     * @param weather The current weather.
+     */
+    default void weatherChanged(WeatherState weather)
+    {
+    }
+
+    /**
+     * An actor has been placed in the field for the first time.
+     * @param actor The new actor.
+     * @param location Where it was placed.
+     */
+    default void born(Actor actor, Location location)
+    {
+    }
+
+    /**
+     * An actor has moved.
+     * @param actor The actor.
+     * @param from The location it left, or null if another actor
+     *             had already been placed over it there.
+     * @param to The location it moved to.
+     */
+    default void moved(Actor actor, Location from, Location to)
+    {
+    }
+
+    /**
+     * An actor is about to eat another.
+     * @param eater The actor doing the eating.
+     * @param food The actor being eaten, which then dies.
+     */
+    default void killed(Actor eater, Actor food)
+    {
+    }
+
+    /**
+     * An actor has died, and the location it held has been cleared.
+     * @param actor The actor.
+     * @param location The location that was cleared.
+     * @param cause Why the actor died.
+     */
+    default void died(Actor actor, Location location, DeathCause cause)
+    {
+    }
+}
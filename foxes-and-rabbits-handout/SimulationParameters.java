@@ -0,0 +1,478 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tunable constants of one simulation: the life history of each
+ * species, how likely each is to be created in an empty cell, what
+ * each species eats and how it chooses its meal, and how likely each
+ * kind of weather is. A new object holds the values the simulation
+ * has always used, and the diets the species were defined with.
+ *
+ * The diets are an edibility matrix with a row per eater and a
+ * column per food, both indexed by species id, so checking whether a
+ * neighbour is food is a single array lookup.
+ *
+ * Each value also has a name such as "Mouse.breedingAge" or
+ * "Weather.fogProbability", so that a ParameterSweep can set any of
+ * them. Integer values set by name are rounded.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class SimulationParameters
+{
+    // The names of the values held for each species.
+    private static final String BREEDING_AGE = "breedingAge";
+    private static final String MAX_AGE = "maxAge";
+    private static final String BREEDING_PROBABILITY = "breedingProbability";
+    private static final String MAX_LITTER_SIZE = "maxLitterSize";
+    private static final String FOOD_VALUE = "foodValue";
+    private static final String CREATION_PROBABILITY = "creationProbability";
+    private static final String[] SPECIES_VALUES = {
+        BREEDING_AGE, MAX_AGE, BREEDING_PROBABILITY, MAX_LITTER_SIZE, FOOD_VALUE,
+        CREATION_PROBABILITY,
+    };
+    // The name of the weather values.
+    private static final String WEATHER = "Weather";
+    private static final String FOG_PROBABILITY = "fogProbability";
+    private static final String RAIN_PROBABILITY = "rainProbability";
+
+    // The values of each species, indexed by species id.
+    private final int[] breedingAges;
+    private final int[] maxAges;
+    private final double[] breedingProbabilities;
+    private final int[] maxLitterSizes;
+    private final int[] foodValues;
+    private final double[] creationProbabilities;
+
+    // The number of rows and columns of the diet matrix.
+    private final int dietSize;
+    // Whether the row species eats the column species, held row by row.
+    private final boolean[] diet;
+    private FeedingPolicy feedingPolicy;
+
+    private double fogProbability;
+    private double rainProbability;
+
+    /**
+     * Create parameters holding the standard values.
+     */
+    public SimulationParameters()
+    {
+        int size = Species.count() + 1;
+        breedingAges = new int[size];
+        maxAges = new int[size];
+        breedingProbabilities = new double[size];
+        maxLitterSizes = new int[size];
+        foodValues = new int[size];
+        creationProbabilities = new double[size];
+        dietSize = size;
+        diet = new boolean[size * size];
+        for(int eater = 1; eater < size; eater++) {
+            for(int food = 1; food < size; food++) {
+                diet[eater * size + food] = Species.byId(eater).eats(food);
+            }
+        }
+        feedingPolicy = FeedingPolicy.FIRST_FOUND;
+
+        setSpecies(Species.MOUSE, 4, 85, 0.17, 4, 35, 0.04);
+        setSpecies(Species.CRICKET, 4, 30, 0.14, 3, 25, 0.05);
+        setSpecies(Species.SNAKE, 6, 120, 0.075, 4, 60, 0.025);
+        setSpecies(Species.SCORPION, 7, 100, 0.07, 3, 60, 0.025);
+        setSpecies(Species.EAGLE, 12, 200, 0.064, 4, 150, 0.01);
+        setSpecies(Species.PLANT, 10, 40, 0.1, 8, 5, 0.06);
+        fogProbability = 0.1;
+        rainProbability = 0.2;
+    }
+
+    /**
+     * Create a copy of other parameters, which can then be changed
+     * without affecting them.
+     * @param other The parameters to copy.
+     */
+    public SimulationParameters(SimulationParameters other)
+    {
+        breedingAges = other.breedingAges.clone();
+        maxAges = other.maxAges.clone();
+        breedingProbabilities = other.breedingProbabilities.clone();
+        maxLitterSizes = other.maxLitterSizes.clone();
+        foodValues = other.foodValues.clone();
+        creationProbabilities = other.creationProbabilities.clone();
+        dietSize = other.dietSize;
+        diet = other.diet.clone();
+        feedingPolicy = other.feedingPolicy;
+        fogProbability = other.fogProbability;
+        rainProbability = other.rainProbability;
+    }
+
+    /**
+     * @return The age at which the species can start to breed.
+     */
+    public int getBreedingAge(Species species)
+    {
+        return breedingAges[species.getId()];
+    }
+
+    /**
+     * @param breedingAge The age at which the species can start to breed.
+     * @throws IllegalArgumentException If the age is negative.
+     */
+    public void setBreedingAge(Species species, int breedingAge)
+    {
+        breedingAges[species.getId()] = notNegative(nameOf(species, BREEDING_AGE), breedingAge);
+    }
+
+    /**
+     * @return The age to which the species can live.
+     */
+    public int getMaxAge(Species species)
+    {
+        return maxAges[species.getId()];
+    }
+
+    /**
+     * @param maxAge The age to which the species can live.
+     * @throws IllegalArgumentException If the age is not positive.
+     */
+    public void setMaxAge(Species species, int maxAge)
+    {
+        maxAges[species.getId()] = positive(nameOf(species, MAX_AGE), maxAge);
+    }
+
+    /**
+     * @return The likelihood of the species breeding in a step.
+     */
+    public double getBreedingProbability(Species species)
+    {
+        return breedingProbabilities[species.getId()];
+    }
+
+    /**
+     * @param breedingProbability The likelihood of the species
+     *                            breeding in a step.
+     * @throws IllegalArgumentException If the probability is not between 0
+     *                                  and 1.
+     */
+    public void setBreedingProbability(Species species, double breedingProbability)
+    {
+        breedingProbabilities[species.getId()] =
+            probability(nameOf(species, BREEDING_PROBABILITY), breedingProbability);
+    }
+
+    /**
+     * @return The most young the species can have at once.
+     */
+    public int getMaxLitterSize(Species species)
+    {
+        return maxLitterSizes[species.getId()];
+    }
+
+    /**
+     * @param maxLitterSize The most young the species can have at once.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public void setMaxLitterSize(Species species, int maxLitterSize)
+    {
+        maxLitterSizes[species.getId()] = positive(nameOf(species, MAX_LITTER_SIZE), maxLitterSize);
+    }
+
+    /**
+     * @return The food value of the species. In effect, this is the
+     *         number of steps an actor that eats one can go before
+     *         it has to eat again.
+     */
+    public int getFoodValue(Species species)
+    {
+        return foodValues[species.getId()];
+    }
+
+    /**
+     * Return the food value of a species by its id, for the inner
+     * loops of a step.
+     * @param id The id of the species.
+     * @return The food value of the species.
+     */
+    public int getFoodValue(int id)
+    {
+        return foodValues[id];
+    }
+
+    /**
+     * @param foodValue The food value of the species.
+     * @throws IllegalArgumentException If the food value is not positive.
+     */
+    public void setFoodValue(Species species, int foodValue)
+    {
+        foodValues[species.getId()] = positive(nameOf(species, FOOD_VALUE), foodValue);
+    }
+
+    /**
+     * Check whether one species eats another.
+     * @param eater The id of the eating species.
+     * @param food The id of the other species, or 0 for none.
+     * @return true if the eater eats it.
+     */
+    public boolean eats(int eater, int food)
+    {
+        return diet[eater * dietSize + food];
+    }
+
+    /**
+     * Change whether one species eats another.
+     * @param eater The eating species.
+     * @param food The species it may eat.
+     * @param edible Whether the eater eats it.
+     */
+    public void setEats(Species eater, Species food, boolean edible)
+    {
+        diet[eater.getId() * dietSize + food.getId()] = edible;
+    }
+
+    /**
+     * @return How animals choose which neighbour to eat.
+     */
+    public FeedingPolicy getFeedingPolicy()
+    {
+        return feedingPolicy;
+    }
+
+    /**
+     * @param feedingPolicy How animals choose which neighbour to eat.
+     */
+    public void setFeedingPolicy(FeedingPolicy feedingPolicy)
+    {
+        this.feedingPolicy = feedingPolicy;
+    }
+
+    /**
+     * Return the likelihood of an actor of the species being created
+     * in a cell when the field is populated, once the species before
+     * it have not been. For plants, this is also the likelihood of a
+     * plant growing in each cell after rain.
+     * @return The creation probability of the species.
+     */
+    public double getCreationProbability(Species species)
+    {
+        return creationProbabilities[species.getId()];
+    }
+
+    /**
+     * @param creationProbability The creation probability of the species.
+     * @throws IllegalArgumentException If the probability is not between 0
+     *                                  and 1.
+     */
+    public void setCreationProbability(Species species, double creationProbability)
+    {
+        creationProbabilities[species.getId()] =
+            probability(nameOf(species, CREATION_PROBABILITY), creationProbability);
+    }
+
+    /**
+     * @return The likelihood of a foggy day.
+     */
+    public double getFogProbability()
+    {
+        return fogProbability;
+    }
+
+    /**
+     * @param fogProbability The likelihood of a foggy day.
+     * @throws IllegalArgumentException If the probability is not between 0
+     *                                  and 1.
+     */
+    public void setFogProbability(double fogProbability)
+    {
+        this.fogProbability = probability(WEATHER + "." + FOG_PROBABILITY, fogProbability);
+    }
+
+    /**
+     * @return The likelihood of a rainy day.
+     */
+    public double getRainProbability()
+    {
+        return rainProbability;
+    }
+
+    /**
+     * @param rainProbability The likelihood of a rainy day.
+     * @throws IllegalArgumentException If the probability is not between 0
+     *                                  and 1.
+     */
+    public void setRainProbability(double rainProbability)
+    {
+        this.rainProbability = probability(WEATHER + "." + RAIN_PROBABILITY, rainProbability);
+    }
+
+    /**
+     * @return The name of every value that can be got or set by name.
+     */
+    public static List<String> getNames()
+    {
+        List<String> names = new ArrayList<>();
+        for(int id = 1; id <= Species.count(); id++) {
+            Species species = Species.byId(id);
+            if(species.getKind() != Species.KIND_OTHER) {
+                for(String value : SPECIES_VALUES) {
+                    names.add(species.getName() + "." + value);
+                }
+            }
+        }
+        names.add(WEATHER + "." + FOG_PROBABILITY);
+        names.add(WEATHER + "." + RAIN_PROBABILITY);
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Return a value by its name.
+     * @param name The name, such as "Mouse.breedingAge".
+     * @return The value.
+     * @throws IllegalArgumentException If there is no such value.
+     */
+    public double get(String name)
+    {
+        int dot = name.indexOf('.');
+        String owner = dot < 0 ? "" : name.substring(0, dot);
+        String value = name.substring(dot + 1);
+        if(owner.equals(WEATHER)) {
+            switch(value) {
+                case FOG_PROBABILITY: return fogProbability;
+                case RAIN_PROBABILITY: return rainProbability;
+            }
+        }
+        else {
+            int id = idOf(owner, name);
+            switch(value) {
+                case BREEDING_AGE: return breedingAges[id];
+                case MAX_AGE: return maxAges[id];
+                case BREEDING_PROBABILITY: return breedingProbabilities[id];
+                case MAX_LITTER_SIZE: return maxLitterSizes[id];
+                case FOOD_VALUE: return foodValues[id];
+                case CREATION_PROBABILITY: return creationProbabilities[id];
+            }
+        }
+        throw new IllegalArgumentException("There is no parameter " + name + ".");
+    }
+
+    /**
+     * Set a value by its name.
+     * @param name The name, such as "Mouse.breedingAge".
+     * @param newValue The new value, rounded if the value is an integer.
+     * @throws IllegalArgumentException If there is no such value, or
+     *                                  the new value is out of range.
+     */
+    public void set(String name, double newValue)
+    {
+        int dot = name.indexOf('.');
+        String owner = dot < 0 ? "" : name.substring(0, dot);
+        String value = name.substring(dot + 1);
+        int rounded = (int) Math.round(newValue);
+        if(owner.equals(WEATHER)) {
+            switch(value) {
+                case FOG_PROBABILITY: fogProbability = probability(name, newValue); return;
+                case RAIN_PROBABILITY: rainProbability = probability(name, newValue); return;
+            }
+        }
+        else {
+            int id = idOf(owner, name);
+            switch(value) {
+                case BREEDING_AGE: breedingAges[id] = notNegative(name, rounded); return;
+                case MAX_AGE: maxAges[id] = positive(name, rounded); return;
+                case BREEDING_PROBABILITY: breedingProbabilities[id] = probability(name, newValue); return;
+                case MAX_LITTER_SIZE: maxLitterSizes[id] = positive(name, rounded); return;
+                case FOOD_VALUE: foodValues[id] = positive(name, rounded); return;
+                case CREATION_PROBABILITY: creationProbabilities[id] = probability(name, newValue); return;
+            }
+        }
+        throw new IllegalArgumentException("There is no parameter " + name + ".");
+    }
+
+    /**
+     * Set all the values of one species.
+     */
+    private void setSpecies(Species species, int breedingAge, int maxAge,
+                            double breedingProbability, int maxLitterSize,
+                            int foodValue, double creationProbability)
+    {
+        int id = species.getId();
+        breedingAges[id] = breedingAge;
+        maxAges[id] = maxAge;
+        breedingProbabilities[id] = breedingProbability;
+        maxLitterSizes[id] = maxLitterSize;
+        foodValues[id] = foodValue;
+        creationProbabilities[id] = creationProbability;
+    }
+
+    /**
+     * @return The name of one of a species' values.
+     */
+    private static String nameOf(Species species, String value)
+    {
+        return species.getName() + "." + value;
+    }
+
+    /**
+     * Check a value that must be greater than zero, such as an age
+     * used as the bound of a random number.
+     * @param name The name of the value, for the error message.
+     * @param value The value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not positive.
+     */
+    private static int positive(String name, int value)
+    {
+        if(value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive, not " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Check a value that must not be negative.
+     * @param name The name of the value, for the error message.
+     * @param value The value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is negative.
+     */
+    private static int notNegative(String name, int value)
+    {
+        if(value < 0) {
+            throw new IllegalArgumentException(name + " must be zero or more, not " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Check a value that must be a probability.
+     * @param name The name of the value, for the error message.
+     * @param value The value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not between 0
+     *                                  and 1.
+     */
+    private static double probability(String name, double value)
+    {
+        if(!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1, not " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Find the id of the species a named value belongs to.
+     * @param owner The species part of the name.
+     * @param name The whole name, for the error message.
+     * @return The species' id.
+     * @throws IllegalArgumentException If there is no such species.
+     */
+    private static int idOf(String owner, String name)
+    {
+        for(int id = 1; id <= Species.count(); id++) {
+            Species species = Species.byId(id);
+            if(species.getName().equals(owner) && species.getKind() != Species.KIND_OTHER) {
+                return id;
+            }
+        }
+        throw new IllegalArgumentException("There is no parameter " + name + ".");
+    }
+}
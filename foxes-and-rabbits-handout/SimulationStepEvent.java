@@ -0,0 +1,72 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for each step of a simulation, lasting as
+ * long as the step and recording the weather and the population of
+ * each species at its end. The populations are held in one string,
+ * a name and count per species, so species added with Species.define
+ * are recorded too. It is disabled unless a recording enables it,
+ * and its threshold setting keeps only the slower steps, for example
+ * "predatorprey.SimulationStep#threshold=20 ms".
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+@Name("predatorprey.SimulationStep")
+@Label("Simulation Step")
+@Category("Predator Prey")
+@Description("A step of the simulation, with the populations at its end")
+@Enabled(false)
+@StackTrace(false)
+public class SimulationStepEvent extends jdk.jfr.Event
+{
+    @Label("Step")
+    int step;
+
+    @Label("Day")
+    boolean day;
+
+    @Label("Weather")
+    String weather;
+
+    @Label("Actors")
+    @Description("The number of actors of every species")
+    int actors;
+
+    @Label("Populations")
+    @Description("The count of each species, such as \"Plant=1238 Mouse=707\"")
+    String populations;
+
+    /**
+     * Fill in the state of the field at the end of the step.
+     * @param step The step.
+     * @param field The field.
+     * @param isDay Whether it is day.
+     * @param weather The step's weather.
+     */
+    void setState(int step, Field field, boolean isDay, WeatherState weather)
+    {
+        this.step = step;
+        day = isDay;
+        this.weather = weather == null ? null : weather.name();
+        actors = 0;
+        StringBuilder counts = new StringBuilder();
+        for(int id = 1; id <= Species.count(); id++) {
+            Species species = Species.byId(id);
+            if(species.getKind() != Species.KIND_OTHER) {
+                int count = field.getCount(id);
+                actors += count;
+                if(counts.length() > 0) {
+                    counts.append(' ');
+                }
+                counts.append(species.getName()).append('=').append(count);
+            }
+        }
+        populations = counts.toString();
+    }
+}
@@ -1,8 +1,15 @@
 import java.util.Random;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.awt.Color;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * A simple predator-prey simulator, based on a rectangular field
@@ -19,40 +26,78 @@ public class Simulator
     // The default depth of the grid.
     private static final int DEFAULT_DEPTH = 80;
 
-    // The probability that an eagle will be created in any given grid position.
-   private static final double EAGLE_CREATION_PROBABILITY = 0.01;
-    
-    // The probability that a snake will be created in any given grid position.
-    private static final double SNAKE_CREATION_PROBABILITY = 0.025;
+    // The species created when the field is populated, in the order
+    // their creation probabilities are tried for each cell.
+    private static final Species[] POPULATE_ORDER = {
+        Species.EAGLE, Species.SCORPION, Species.SNAKE, Species.MOUSE,
+        Species.CRICKET, Species.PLANT,
+    };
 
-    // The probability that a scorpion will be created in any given grid position.
-    private static final double SCORPION_CREATION_PROBABILITY = 0.025;
+    // Keys of the random streams used outside the actors' turns.
+    private static final int POPULATE_STREAM = -1;
+    private static final int WEATHER_STREAM = -2;
+    private static final int REGROWTH_STREAM = -3;
+    // Keys of the groups' streams are this less the group index.
+    private static final int GROUP_STREAMS = -10;
 
-    // The probability that a mouse will be created in any given grid position.
-    private static final double MOUSE_CREATION_PROBABILITY = 0.04;
-    
-    // The probability that a cricket will be created in any given grid position.
-    private static final double CRICKET_CREATION_PROBABILITY = 0.05;
-    
-    // The probability that a plant will be created in any given grid position.
-    private static final double PLANT_CREATION_PROBABILITY = 0.06;
-    
-    // List of animals in the field.
-    private List<Actor> actors;
+    // The first bytes of every checkpoint file.
+    private static final int CHECKPOINT_MAGIC = 0x50504350;
+    private static final int CHECKPOINT_VERSION = 3;
+    // The size of the buffers used to save and restore checkpoints.
+    private static final int CHECKPOINT_BUFFER_SIZE = 1 << 16;
+
+    // Indexes of the actor groups. Actors are grouped by whether they
+    // act at night and whether they are predators, so that a step only
+    // visits the groups that can act in it.
+    private static final int DIURNAL = 0;
+    private static final int DIURNAL_PREDATORS = 1;
+    private static final int NOCTURNAL = 2;
+    private static final int NOCTURNAL_PREDATORS = 3;
+
+    // The actors in the field, in their groups.
+    private ActorRegistry[] groups;
+    // The species in each group, as a bit per species id, so the
+    // field's animal store can age a whole group at once.
+    private long[] groupSpecies;
+
+    // Runs each group of actors that can act in a step.
+    private StepEngine engine;
+
+    // Where the time and memory of each step go, when enabled.
+    private StepMetrics metrics;
+
+    // Space for the actors born during a step, reused every step.
+    private List<Actor> newActors;
     
     // The current state of the field.
     private Field field;
     
     // The current step of the simulation.
     private int step;
+
+    // The seed every random stream of the run is derived from.
+    private long seed;
+
+    // The seed of the current step.
+    private long stepSeed;
     
-    // A graphical view of the simulation.
+    // Observers told about each step, such as a graphical view.
+    private List<SimulatorObserver> observers;
+    // The graphical view attached, or null. There is at most one, as
+    // it takes the field's changes.
     private SimulatorView view;
 
+    // Statistics on the field, kept by the simulation itself so they
+    // do not depend on a view being attached.
+    private FieldStats stats;
+
     
     private Weather weather;
 
-    private String currentWeather;
+    private WeatherState currentWeather;
+
+    // The parameters of this simulation.
+    private SimulationParameters parameters;
 
     private boolean isDay;
 
@@ -63,16 +108,60 @@ public class Simulator
     public Simulator()
     {
         this(DEFAULT_DEPTH, DEFAULT_WIDTH);
-        weather = new Weather();
     }
 
     /**
      * Create a simulation field with the given size and a weather 
-     * system, as well as assinging colours to entities of the field.
+     * system, shown in a graphical view.
      * @param depth Depth of the field. Must be greater than zero.
      * @param width Width of the field. Must be greater than zero.
      */
     public Simulator(int depth, int width)
+    {
+        this(depth, width, true);
+    }
+
+    /**
+     * Create a simulation field with the given size and a weather 
+     * system. Without a view the simulation runs headless and needs
+     * no display; a view can still be attached later.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param showView Whether to create a graphical view.
+     */
+    public Simulator(int depth, int width, boolean showView)
+    {
+        this(depth, width, showView, new SimulationParameters());
+    }
+
+    /**
+     * Create a simulation field with the given size, a weather
+     * system and the given parameters.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param showView Whether to create a graphical view.
+     * @param parameters The parameters of the simulation. The
+     *                   simulation keeps its own copy of them.
+     */
+    public Simulator(int depth, int width, boolean showView, SimulationParameters parameters)
+    {
+        this(depth, width, showView, parameters, Randomizer.getSeed());
+    }
+
+    /**
+     * Create a simulation field with the given size, a weather
+     * system and the given parameters, starting a run with the given
+     * seed. This populates the field once, where creating a simulator
+     * and then setting its seed populates it twice.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param showView Whether to create a graphical view.
+     * @param parameters The parameters of the simulation. The
+     *                   simulation keeps its own copy of them.
+     * @param seed The seed the run's randomness is derived from.
+     */
+    public Simulator(int depth, int width, boolean showView, SimulationParameters parameters,
+                     long seed)
     {
         if(width <= 0 || depth <= 0) {
             System.out.println("The dimensions must be greater than zero.");
@@ -80,22 +169,107 @@ public class Simulator
             depth = DEFAULT_DEPTH;
             width = DEFAULT_WIDTH;
         }
-        weather = new Weather();
+        this.parameters = new SimulationParameters(parameters);
+        weather = new Weather(this.parameters);
 
-        actors = new ArrayList<>();
+        groups = new ActorRegistry[4];
+        groupSpecies = new long[groups.length];
+        for(int g = 0; g < groups.length; g++) {
+            groups[g] = new ActorRegistry();
+        }
+        newActors = new ArrayList<>();
+        engine = new SequentialStepEngine();
+        metrics = new StepMetrics();
+        this.seed = seed;
 
-        field = new Field(depth, width);
-        // Create a view of the state of each location in the field.
-        view = new SimulatorView(depth, width);
-        view.setColor(Plant.class, Color.GREEN);
-        view.setColor(Cricket.class, Color.GRAY);
-        view.setColor(Mouse.class, Color.BLUE);
-        view.setColor(Scorpion.class, Color.ORANGE);
-        view.setColor(Snake.class, Color.MAGENTA);
-        view.setColor(Eagle.class, Color.RED);
+        field = new Field(depth, width, this.parameters);
+        stats = new FieldStats();
+        observers = new ArrayList<>();
 
         // Setup a valid starting point.
         reset();
+        if(showView) {
+            attachView();
+        }
+    }
+
+    /**
+     * Create a graphical view of the state of each location in the
+     * field, assigning colours to the entities of the field, and
+     * attach it to the simulation. The field tracks which cells
+     * change while the view is attached, so the view can draw only
+     * those.
+     * @return The new view.
+     * @throws IllegalStateException If a view is already attached.
+     */
+    public SimulatorView attachView()
+    {
+        if(view != null) {
+            throw new IllegalStateException("A view is already attached to the simulation.");
+        }
+        field.setTrackingChanges(true);
+        view = new SimulatorView(field.getDepth(), field.getWidth());
+        view.setColor(Species.PLANT, Color.GREEN);
+        view.setColor(Species.CRICKET, Color.GRAY);
+        view.setColor(Species.MOUSE, Color.BLUE);
+        view.setColor(Species.SCORPION, Color.ORANGE);
+        view.setColor(Species.SNAKE, Color.MAGENTA);
+        view.setColor(Species.EAGLE, Color.RED);
+        addObserver(view);
+        return view;
+    }
+
+    /**
+     * Stop telling the view about the steps, and close its window.
+     * The field stops tracking its changes.
+     * @param view The view attached to the simulation.
+     */
+    public void detachView(SimulatorView view)
+    {
+        if(view == this.view) {
+            field.setTrackingChanges(false);
+            this.view = null;
+        }
+        removeObserver(view);
+        view.dispose();
+    }
+
+    /**
+     * Attach an observer to be told about every step. It is shown the
+     * current state of the field at once.
+     * @param observer The observer to attach.
+     */
+    public void addObserver(SimulatorObserver observer)
+    {
+        observers.add(observer);
+        observer.showStatus(step, field, isDay, currentWeather);
+    }
+
+    /**
+     * Detach an observer.
+     * @param observer The observer to detach.
+     */
+    public void removeObserver(SimulatorObserver observer)
+    {
+        observers.remove(observer);
+    }
+
+    /**
+     * Determine whether the simulation should continue to run.
+     * @return true If there is more than one species alive.
+     */
+    public boolean isViable()
+    {
+        return stats.isViable(field);
+    }
+
+    /**
+     * Get details of what is in the field.
+     * @return A string describing what is in the field.
+     */
+    public String getPopulationDetails()
+    {
+        return stats.getPopulationDetails(field);
     }
 
     /**
@@ -114,7 +288,7 @@ public class Simulator
      */
     public void simulate(int numSteps)
     {
-        for(int step = 1; step <= numSteps && view.isViable(field); step++) {
+        for(int step = 1; step <= numSteps && isViable(); step++) {
             simulateOneStep();
             //delay(60);   // uncomment this to run more slowly
         }
@@ -122,40 +296,72 @@ public class Simulator
 
     /**
      * Run the simulation from its current state for a single step.
-     * Iterate over the whole field updating the state of each
-     * actor as well as changing the weather and the day/night cycle.
+     * Update the state of each actor that can act in this step as
+     * well as changing the weather and the day/night cycle.
      * Nocturnal actors act during the night, the others act during
-     * the night.
+     * the day. Predators do not act while it is foggy.
      */
     public void simulateOneStep()
     {
+        SimulationStepEvent event = new SimulationStepEvent();
+        event.begin();
+        metrics.startStep();
         step++;
+        SimulationListener listener = field.getListener();
+        listener.stepStarted(step);
+        stepSeed = Randomizer.deriveSeed(seed, step);
         dayOrNight();
+        metrics.endPhase(StepPhase.DAY_NIGHT);
+        Randomizer.useStream(stepSeed, WEATHER_STREAM);
         weather.setWeatherState();
         currentWeather = weather.checkLastWeather();
+        listener.weatherChanged(currentWeather);
+        metrics.endPhase(StepPhase.WEATHER);
+        Randomizer.useStream(stepSeed, REGROWTH_STREAM);
         plantRegrowth();
+        metrics.endPhase(StepPhase.PLANT_REGROWTH);
         
         // Provide space for newborn animals.
-        List<Actor> newActors = new ArrayList<>();
-
-        for(Iterator<Actor> it = actors.iterator(); it.hasNext(); ) {
-            Actor actor = it.next();
-            if (!fogStopAction(actor)) {
-                if (!isDay) {
-                    actNight(actor, newActors);
-                } else {
-                    actDay(actor, newActors);
-                }
-            }
-            if(!actor.isAlive()) {
-                it.remove();
-            }
+        newActors.clear();
+
+        int others = isDay ? DIURNAL : NOCTURNAL;
+        int predators = isDay ? DIURNAL_PREDATORS : NOCTURNAL_PREDATORS;
+        boolean predatorsAct = currentWeather != WeatherState.FOG;
+        // Age every group that acts this step in one pass.
+        field.getAnimals().age(groupSpecies[others] | (predatorsAct ? groupSpecies[predators] : 0));
+        actGroup(others);
+        if (predatorsAct) {
+            actGroup(predators);
+        }
+
+        // Add the newly born actors to their groups.
+        ActorBirthsEvent.count(newActors);
+        for(int i = 0; i < newActors.size(); i++) {
+            addActor(newActors.get(i));
         }
+        // Slots of animals that died this step can now be reused.
+        field.getAnimals().reclaim();
+        metrics.endPhase(StepPhase.BIRTH_MERGE);
 
-        // Add the newly born actors to the main lists.
-        actors.addAll(newActors);
+        notifyObservers();
+        metrics.endPhase(StepPhase.VIEW_UPDATE);
+        metrics.endStep();
 
-        view.showStatus(step, field, isDay, currentWeather);
+        event.end();
+        if(event.shouldCommit()) {
+            event.setState(step, field, isDay, currentWeather);
+            event.commit();
+        }
+    }
+
+    /**
+     * Tell every observer about the current state of the field.
+     */
+    private void notifyObservers()
+    {
+        for(int i = 0; i < observers.size(); i++) {
+            observers.get(i).showStatus(step, field, isDay, currentWeather);
+        }
     }
     
 
@@ -192,70 +398,271 @@ public class Simulator
      * available spaces within the simulation.
      */
     public void plantRegrowth()
+    {
+        if (weather.twoDayReport(WeatherState.RAIN, WeatherState.SUN)) {
+            growPlants();
+        }
+    }
+
+    /**
+     * Grow a plant in each location of the field with the plants'
+     * creation probability, whatever the weather.
+     */
+    void growPlants()
     {
         Random rand = Randomizer.getRandom();
-        if (weather.twoDayReport().equals("RainSun")) {
-            for(int row = 0; row < field.getDepth(); row++) {
-                for(int col = 0; col < field.getWidth(); col++) {
-                    if(rand.nextDouble() <= PLANT_CREATION_PROBABILITY){ 
-                        Location location = new Location(row, col);
-                        Plant plant = new Plant(true, field, location);
-                        actors.add(plant);
-                    }
+        double plantProbability = parameters.getCreationProbability(Species.PLANT);
+        for(int row = 0; row < field.getDepth(); row++) {
+            for(int col = 0; col < field.getWidth(); col++) {
+                if(rand.nextDouble() <= plantProbability){ 
+                    Location location = field.getLocation(row, col);
+                    Plant plant = new Plant(true, field, location);
+                    addActor(plant);
                 }
             }
         }
     }
 
     /**
-     * If the current weather is foggy and an actor is a predator,
-     * they will not act for that step.
-     * @param actor An actor within the simulation
-     * @return A boolean value of whether an action should cease.
+     * Let every live actor in a group act, then sweep out the
+     * actors that died. Actors in other groups that die in the
+     * meantime, by being eaten, are swept out after their own
+     * group next acts.
+     * @param index The index of the group whose actors act.
      */
-    public boolean fogStopAction(Actor actor)
+    private void actGroup(int index)
     {
-        Random rand = Randomizer.getRandom();
-        if (weather.checkLastWeather().equals("Fog") && actor instanceof Predator) {
-            return true;
-        } else {
-            return false;
+        ActorRegistry group = groups[index];
+        field.getAnimals().expire(groupSpecies[index]);
+        engine.act(group, field, newActors, Randomizer.deriveSeed(stepSeed, GROUP_STREAMS - index),
+                   metrics);
+        metrics.endPhase(StepPhase.ACTORS);
+        group.removeDead();
+        metrics.endPhase(StepPhase.DEAD_REMOVAL);
+    }
+
+    /**
+     * Set the seed the run's randomness is derived from, and reset
+     * the simulation to a starting position using it. Runs with the
+     * same seed give the same results.
+     * @param seed The seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * @return The seed the run's randomness is derived from.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return The parameters of this simulation.
+     */
+    public SimulationParameters getParameters()
+    {
+        return parameters;
+    }
+
+    /**
+     * Choose how the actors are stepped, for example one at a time
+     * or in parallel tiles.
+     * @param engine The engine to run the actors with.
+     */
+    public void setStepEngine(StepEngine engine)
+    {
+        this.engine = engine;
+    }
+
+    /**
+     * Return where the time and memory of each step go. They are not
+     * measured until the metrics are enabled.
+     * @return The metrics of this simulation.
+     */
+    public StepMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Set the listener told about each change made to the field,
+     * such as an EventLog. The listener is first told the current
+     * step and weather, and given a birth for every actor already
+     * in the field.
+     * @param listener The listener, or SimulationListener.NONE.
+     */
+    public void setListener(SimulationListener listener)
+    {
+        field.setListener(listener);
+        listener.stepStarted(step);
+        listener.weatherChanged(currentWeather);
+        for(int row = 0; row < field.getDepth(); row++) {
+            for(int col = 0; col < field.getWidth(); col++) {
+                Object occupant = field.getObjectAt(row, col);
+                if(occupant instanceof Actor) {
+                    listener.born((Actor) occupant, field.getLocation(row, col));
+                }
+            }
         }
     }
-    
+
     /**
-     * Non-nocturnal actors act for that step.
-     * @param actor An actor within the simulation
-     * @param newActors A list of the new actors within the simulation.
+     * Save the whole state of the simulation to a file, so that a run
+     * restored from it continues exactly as this one would. Every
+     * random number is drawn from a stream derived from the seed and
+     * the step, so those two are the state of the randomness.
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
      */
-    public void actDay(Actor actor, List<Actor> newActors) {
-        if (!actor.getIsNocturnal()) {
-            actor.act(newActors);
+    public void saveCheckpoint(Path file) throws IOException
+    {
+        try(DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), CHECKPOINT_BUFFER_SIZE))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeInt(field.getDepth());
+            out.writeInt(field.getWidth());
+            out.writeLong(seed);
+            out.writeInt(step);
+            out.writeBoolean(isDay);
+            out.writeByte(currentWeather.ordinal());
+            weather.writeState(out);
+            // The live actors of each group, in the order they act.
+            for(ActorRegistry group : groups) {
+                int live = 0;
+                for(int i = 0; i < group.size(); i++) {
+                    if(group.get(i).isAlive()) {
+                        live++;
+                    }
+                }
+                out.writeInt(live);
+                for(int i = 0; i < group.size(); i++) {
+                    Actor actor = group.get(i);
+                    if(actor.isAlive()) {
+                        Location location = actor.getLocation();
+                        out.writeByte(actor.getSpecies().getId());
+                        out.writeInt(field.indexOf(location));
+                        // Whether the actor holds its cell, rather than
+                        // having had another placed over it.
+                        out.writeBoolean(field.getObjectAt(location) == actor);
+                        actor.writeState(out);
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Nocturnal actors act for that step.
-     * @param actor An actor within the simulation
-     * @param newActors A list of the new actors within the simulation.
+     * Replace the state of the simulation with one saved by
+     * saveCheckpoint. The field must be the same size as the saved
+     * one. The restored actors are not reported to the listener. If
+     * restoring fails part way, reset the simulation before using it.
+     * @param file The file to read.
+     * @throws IOException If the file cannot be read, or does not fit
+     *                     this simulation.
      */
-    public void actNight (Actor actor, List<Actor> newActors) {
-        if (actor.getIsNocturnal()) {
-            actor.act(newActors);
+    public void restoreCheckpoint(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), CHECKPOINT_BUFFER_SIZE))) {
+            if(in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException(file + " is not a checkpoint.");
+            }
+            int depth = in.readInt();
+            int width = in.readInt();
+            if(depth != field.getDepth() || width != field.getWidth()) {
+                throw new IOException("The checkpoint is of a " + depth + " by " + width
+                                      + " field, not " + field.getDepth() + " by "
+                                      + field.getWidth() + ".");
+            }
+            seed = in.readLong();
+            step = in.readInt();
+            isDay = in.readBoolean();
+            currentWeather = WeatherState.values()[in.readByte()];
+            weather.readState(in);
+
+            SimulationListener listener = field.getListener();
+            field.setListener(SimulationListener.NONE);
+            try {
+                field.clear();
+                Arrays.fill(groupSpecies, 0);
+                List<Actor> holders = new ArrayList<>();
+                List<Actor> strays = new ArrayList<>();
+                for(ActorRegistry group : groups) {
+                    group.clear();
+                    int live = in.readInt();
+                    for(int i = 0; i < live; i++) {
+                        Species species = Species.byId(in.readByte());
+                        Location location = field.getLocationAt(in.readInt());
+                        boolean holder = in.readBoolean();
+                        Actor actor = species.createActor(false, field, location);
+                        actor.readState(in);
+                        addActor(actor);
+                        if(holder) {
+                            holders.add(actor);
+                        }
+                        else {
+                            strays.add(actor);
+                        }
+                    }
+                }
+                // Each actor was placed in the field when it was
+                // created, but some of them had lost their cells to
+                // others, and hold nothing.
+                for(Actor actor : strays) {
+                    field.clear(actor.getLocation());
+                }
+                for(Actor actor : holders) {
+                    field.place(actor, actor.getLocation());
+                }
+            }
+            finally {
+                field.setListener(listener);
+            }
         }
+        notifyObservers();
     }
 
     /**
-     * Reset the simulation to a starting position.
+     * Add an actor to the group for when it acts.
+     * @param actor The actor to add.
+     */
+    private void addActor(Actor actor)
+    {
+        int group = actor.getIsNocturnal() ? NOCTURNAL : DIURNAL;
+        if(actor.getSpecies().getKind() == Species.KIND_PREDATOR) {
+            group++;
+        }
+        groups[group].add(actor);
+        groupSpecies[group] |= 1L << actor.getSpecies().getId();
+    }
+
+    /**
+     * Reset the simulation to a starting position. The weather of
+     * the previous run is forgotten, so a run started again with the
+     * same seed goes exactly as a new simulation with that seed.
      */
     public void reset()
     {
         step = 0;
-        actors.clear();
+        isDay = false;
+        weather.reset();
+        currentWeather = weather.checkLastWeather();
+        for(ActorRegistry group : groups) {
+            group.clear();
+        }
+        Arrays.fill(groupSpecies, 0);
+        field.getListener().stepStarted(step);
+        field.getListener().weatherChanged(currentWeather);
         populate();
 
-        // Show the starting state in the view.
-        view.showStatus(step, field, isDay, currentWeather);
+        // Show the starting state to the observers.
+        notifyObservers();
     }
 
     /**
@@ -263,39 +670,18 @@ public class Simulator
      */
     private void populate()
     {
+        Randomizer.useStream(Randomizer.deriveSeed(seed, 0), POPULATE_STREAM);
         Random rand = Randomizer.getRandom();
         field.clear();
         for(int row = 0; row < field.getDepth(); row++) {
             for(int col = 0; col < field.getWidth(); col++) {
-                if(rand.nextDouble() <= EAGLE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Eagle eagle = new Eagle(true, field, location);
-                    actors.add(eagle);
-                } else if(rand.nextDouble() <= SCORPION_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Scorpion scorpion = new Scorpion(true, field, location);
-                    actors.add(scorpion);
-                    // else leave the location empty.
-                } else if(rand.nextDouble() <= SNAKE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Snake snake = new Snake(true, field, location);
-                    actors.add(snake);
-                    // else leave the location empty.
-                } else if(rand.nextDouble() <= MOUSE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Mouse mouse = new Mouse(true, field, location);
-                    actors.add(mouse);
-                    // else leave the location empty.
-                } else if(rand.nextDouble() <= CRICKET_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Cricket cricket = new Cricket(true, field, location);
-                    actors.add(cricket);
-                    // else leave the location empty.
-                } else if(rand.nextDouble() <= PLANT_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Plant plant = new Plant(true, field, location);
-                    actors.add(plant);
-                    // else leave the location empty.
+                // Try each species in turn, else leave the location empty.
+                for(Species species : POPULATE_ORDER) {
+                    if(rand.nextDouble() <= parameters.getCreationProbability(species)) {
+                        Location location = field.getLocation(row, col);
+                        addActor(species.createActor(true, field, location));
+                        break;
+                    }
                 }
             }
         }
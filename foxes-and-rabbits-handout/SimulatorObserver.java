@@ -0,0 +1,19 @@
+/**
+ * An observer of a running simulation, told about the state of the
+ * field after every step. The graphical view is one such observer;
+ * a simulation can run with none at all.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface SimulatorObserver
+{
+    /**
+     * Show the current status of the field.
+     * @param step Which iteration step it is.
+     * @param field The field whose status is to be shown.
+     * @param isDay Whether it is currently day.
+     * @param currentWeather The current weather.
+     */
+    void showStatus(int step, Field field, boolean isDay, WeatherState currentWeather);
+}
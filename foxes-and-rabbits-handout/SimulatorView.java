@@ -1,26 +1,41 @@
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 /**
  * A graphical view of the simulation grid.
  * The view displays a colored rectangle for each location 
  * representing its contents. It uses a default background color.
- * Colors for each type of species can be defined using the
- * setColor method.
+ * Colors for each species can be defined using the setColor
+ * method.
+ *
+ * The field is drawn by a FieldRenderer as an image with one pixel
+ * per cell, and Swing scales the image up to the size of the window.
+ *
+ * The view does not draw on the simulation's thread. After each step
+ * it copies the field into a FieldSnapshot and publishes it, and a
+ * Swing timer picks up only the latest snapshot at the frame rate and
+ * draws it on the event dispatch thread. Steps taken between frames
+ * are never drawn, so painting does not slow the simulation down.
+ * The two threads never use the same snapshot at once; the one the
+ * timer has drawn is handed back to be filled again.
+ *
+ * Only the cells that changed since the last frame are drawn, if the
+ * field tracks its changes, as it does for the view the simulator
+ * attaches. A snapshot that is replaced before it is drawn passes its
+ * changes on to the next.
+ *
+ * Closing the window disposes of the view and stops its timer, after
+ * which the view ignores any further steps until it is detached from
+ * the simulator.
  * 
  * @author David J. Barnes and Michael Kölling    Edited by Benedict Morley and Laurence Andrews
  * @version 2016.02.29
  */
-public class SimulatorView extends JFrame
+public class SimulatorView extends JFrame implements SimulatorObserver
 {
-    // Colors used for empty locations.
-    private static final Color EMPTY_COLOR = Color.white;
-
-    // Color used for objects that have no defined color.
-    private static final Color UNKNOWN_COLOR = Color.gray;
+    // The number of frames drawn per second by default.
+    private static final int DEFAULT_FRAME_RATE = 30;
 
     private final String STEP_PREFIX = "Step: ";
     private final String TOD_PREFIX = "Time: ";
@@ -30,11 +45,26 @@ public class SimulatorView extends JFrame
     private JLabel stepLabel, todLabel, weatherLabel, population, infoLabel;
     private FieldView fieldView;
     
-    // A map for storing colors for participants in the simulation
-    private Map<Class, Color> colors;
+    // Draws the snapshots into an image.
+    private FieldRenderer renderer;
     // A statistics object computing and storing simulation information
     private FieldStats stats;
 
+    // Guards the hand over of snapshots between the two threads.
+    private final Object exchange = new Object();
+    // The latest snapshot published and not yet drawn, if any.
+    private FieldSnapshot latest;
+    // A snapshot the timer has drawn and handed back, if any.
+    private FieldSnapshot drawn;
+    // The snapshot the simulation fills next. Only used by its thread.
+    private FieldSnapshot spare;
+    // Whether the next snapshot must be drawn whole, as the first is.
+    private boolean redrawAll = true;
+    // Draws the latest snapshot on the event dispatch thread.
+    private final Timer renderTimer;
+    // Whether the view has been disposed of, so takes no snapshots.
+    private volatile boolean closed;
+
     /**
      * Create a view of the given width and height.
      * @param height The simulation's height.
@@ -43,9 +73,10 @@ public class SimulatorView extends JFrame
     public SimulatorView(int height, int width)
     {
         stats = new FieldStats();
-        colors = new LinkedHashMap<>();
+        renderer = new FieldRenderer(height, width);
 
         setTitle("Predator-Prey Simulation");
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         stepLabel = new JLabel(STEP_PREFIX, JLabel.CENTER);
         todLabel = new JLabel(TOD_PREFIX, JLabel.CENTER);
         weatherLabel = new JLabel(WEATHER_PREFIX, JLabel.CENTER);
@@ -68,16 +99,20 @@ public class SimulatorView extends JFrame
         contents.add(population, BorderLayout.SOUTH);
         pack();
         setVisible(true);
+
+        spare = new FieldSnapshot(height, width);
+        renderTimer = new Timer(1000 / DEFAULT_FRAME_RATE, e -> render());
+        renderTimer.start();
     }
     
     /**
-     * Define a color to be used for a given class of actor.
-     * @param actorClass The actor's Class object.
-     * @param color The color to be used for the given class.
+     * Define a color to be used for a given species.
+     * @param species The species.
+     * @param color The color to be used for the given species.
      */
-    public void setColor(Class actorClass, Color color)
+    public void setColor(Species species, Color color)
     {
-        colors.put(actorClass, color);
+        renderer.setColor(species, color);
     }
 
     /**
@@ -89,60 +124,100 @@ public class SimulatorView extends JFrame
     }
 
     /**
-     * @return The color to be used for a given class of actor.
+     * Set how many frames are drawn per second.
+     * @param framesPerSecond The frame rate, at least 1.
      */
-    private Color getColor(Class actorClass)
+    public void setFrameRate(int framesPerSecond)
     {
-        Color col = colors.get(actorClass);
-        if(col == null) {
-            // no color defined for this class
-            return UNKNOWN_COLOR;
-        }
-        else {
-            return col;
-        }
+        renderTimer.setDelay(1000 / Math.max(framesPerSecond, 1));
     }
 
     /**
-     * Show the current status of the field.
+     * Show the current status of the field. This only takes a
+     * snapshot of the field for the next frame, replacing any
+     * snapshot that has not been drawn yet.
      * @param step Which iteration step it is.
      * @param field The field whose status is to be displayed.
      */
-    public void showStatus(int step, Field field, boolean isDay, String currentWeather)
+    public void showStatus(int step, Field field, boolean isDay, WeatherState currentWeather)
+    {
+        if(closed) {
+            return;
+        }
+        FieldSnapshot snapshot = spare;
+        snapshot.capture(step, field, isDay, currentWeather);
+        if(redrawAll) {
+            snapshot.setRedrawAll();
+            redrawAll = false;
+        }
+        synchronized(exchange) {
+            // Reuse the snapshot replaced, or else one already drawn.
+            FieldSnapshot replaced = latest;
+            if(replaced != null) {
+                // It will not be drawn, so its changes must be.
+                snapshot.addChanges(replaced);
+                spare = replaced;
+            }
+            else {
+                spare = drawn;
+                drawn = null;
+            }
+            latest = snapshot;
+        }
+        if(spare == null) {
+            // The timer is drawing the only other snapshot.
+            spare = new FieldSnapshot(field.getDepth(), field.getWidth());
+        }
+    }
+
+    /**
+     * Stop drawing and release the window. This is done when the
+     * window is closed, or when the view is detached from the
+     * simulator.
+     */
+    @Override
+    public void dispose()
     {
+        closed = true;
+        renderTimer.stop();
+        super.dispose();
+    }
+
+    /**
+     * Draw the latest snapshot, if there is a new one. This runs on
+     * the event dispatch thread.
+     */
+    private void render()
+    {
+        FieldSnapshot snapshot;
+        synchronized(exchange) {
+            snapshot = latest;
+            latest = null;
+        }
+        if(snapshot == null) {
+            return;
+        }
         if(!isVisible()) {
             setVisible(true);
         }
             
-        stepLabel.setText(STEP_PREFIX + step);
+        stepLabel.setText(STEP_PREFIX + snapshot.getStep());
         
-        if (isDay) {
+        if (snapshot.isDay()) {
             todLabel.setText(TOD_PREFIX + "Day");
         } else {
             todLabel.setText(TOD_PREFIX + "Night");
         }
         
-        weatherLabel.setText(WEATHER_PREFIX + currentWeather);
+        weatherLabel.setText(WEATHER_PREFIX + snapshot.getWeather());
         
-        stats.reset();
-        
-        fieldView.preparePaint();
-
-        for(int row = 0; row < field.getDepth(); row++) {
-            for(int col = 0; col < field.getWidth(); col++) {
-                Object actor = field.getObjectAt(row, col);
-                if(actor != null) {
-                    stats.incrementCount(actor.getClass());
-                    fieldView.drawMark(col, row, getColor(actor.getClass()));
-                }  else {
-                    fieldView.drawMark(col, row, EMPTY_COLOR);
-                }
-            }
-        }
-        stats.countFinished();
+        renderer.draw(snapshot);
 
-        population.setText(POPULATION_PREFIX + stats.getPopulationDetails(field));
+        population.setText(POPULATION_PREFIX + stats.getPopulationDetails(snapshot));
         fieldView.repaint();
+        synchronized(exchange) {
+            drawn = snapshot;
+        }
     }
 
     /**
@@ -167,10 +242,6 @@ public class SimulatorView extends JFrame
         private final int GRID_VIEW_SCALING_FACTOR = 6;
 
         private int gridWidth, gridHeight;
-        private int xScale, yScale;
-        Dimension size;
-        private Graphics g;
-        private Image fieldImage;
 
         /**
          * Create a new FieldView component.
@@ -179,7 +250,6 @@ public class SimulatorView extends JFrame
         {
             gridHeight = height;
             gridWidth = width;
-            size = new Dimension(0, 0);
         }
 
         /**
@@ -192,52 +262,16 @@ public class SimulatorView extends JFrame
         }
 
         /**
-         * Prepare for a new round of painting. Since the component
-         * may be resized, compute the scaling factor again.
-         */
-        public void preparePaint()
-        {
-            if(! size.equals(getSize())) {  // if the size has changed...
-                size = getSize();
-                fieldImage = fieldView.createImage(size.width, size.height);
-                g = fieldImage.getGraphics();
-
-                xScale = size.width / gridWidth;
-                if(xScale < 1) {
-                    xScale = GRID_VIEW_SCALING_FACTOR;
-                }
-                yScale = size.height / gridHeight;
-                if(yScale < 1) {
-                    yScale = GRID_VIEW_SCALING_FACTOR;
-                }
-            }
-        }
-        
-        /**
-         * Paint on grid location on this field in a given color.
-         */
-        public void drawMark(int x, int y, Color color)
-        {
-            g.setColor(color);
-            g.fillRect(x * xScale, y * yScale, xScale-1, yScale-1);
-        }
-
-        /**
-         * The field view component needs to be redisplayed. Copy the
-         * internal image to screen.
+         * The field view component needs to be redisplayed. Scale
+         * the image up to the component's size, keeping the cells'
+         * edges sharp.
          */
         public void paintComponent(Graphics g)
         {
-            if(fieldImage != null) {
-                Dimension currentSize = getSize();
-                if(size.equals(currentSize)) {
-                    g.drawImage(fieldImage, 0, 0, null);
-                }
-                else {
-                    // Rescale the previous image.
-                    g.drawImage(fieldImage, 0, 0, currentSize.width, currentSize.height, null);
-                }
-            }
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2.drawImage(renderer.getImage(), 0, 0, getWidth(), getHeight(), null);
         }
     }
 }
@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A species of actor in the simulation. Each species has a small
+ * integer id and belongs to one kind (plant, prey or predator). The
+ * field stores these as an integer tag per cell, so checking what
+ * kind of actor is in a cell is an integer compare rather than an
+ * instanceof check on the occupant.
+ *
+ * A species is also the data its actors behave by: whether they are
+ * active at night, and which species they eat by default, from which
+ * each SimulationParameters builds its diet matrix. Every animal is
+ * an Animal and every plant a Plant, whatever its species, so a new
+ * species is added by calling define rather than by writing a class.
+ * Its life history is taken from the SimulationParameters of each
+ * simulation.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class Species
+{
+    // Kinds of species.
+    public static final int KIND_OTHER = 0;
+    public static final int KIND_PLANT = 1;
+    public static final int KIND_PREY = 2;
+    public static final int KIND_PREDATOR = 3;
+
+    // The number of low tag bits holding the species id.
+    private static final int ID_BITS = 8;
+    // One more than the largest species id. Kept to 64 so that a set
+    // of species fits in the bits of a long, as AnimalStore and the
+    // simulator's groups hold them.
+    static final int MAX_SPECIES = Long.SIZE;
+
+    // Every species, indexed by id.
+    private static final List<Species> table = new ArrayList<>();
+
+    // Used for anything placed in a field that is not an actor.
+    public static final Species OTHER = new Species("Other", KIND_OTHER, false, null);
+
+    public static final Species PLANT = new Species("Plant", KIND_PLANT, false, Plant::new);
+    public static final Species MOUSE = define("Mouse", KIND_PREY, true, PLANT);
+    public static final Species CRICKET = define("Cricket", KIND_PREY, true, PLANT);
+    public static final Species SNAKE = define("Snake", KIND_PREDATOR, false, MOUSE);
+    public static final Species SCORPION = define("Scorpion", KIND_PREDATOR, true, MOUSE, CRICKET);
+    public static final Species EAGLE = define("Eagle", KIND_PREDATOR, false, SNAKE, SCORPION);
+
+    // The species' name, e.g. "Mouse".
+    private final String name;
+    // The kind of species this is.
+    private final int kind;
+    // The species' position in the table. Never zero, so that a
+    // tag of zero can mean an empty cell.
+    private final int id;
+    // Whether the species acts at night rather than in the day.
+    private final boolean nocturnal;
+    // Whether the species eats each other species by default,
+    // indexed by id.
+    private final boolean[] diet = new boolean[MAX_SPECIES];
+    // Creates actors of the species, or null if it has none.
+    private final ActorFactory factory;
+
+    /**
+     * Create a species and add it to the table.
+     * @param name The name of the species.
+     * @param kind The kind of species, one of the KIND constants.
+     * @param nocturnal Whether the species acts at night.
+     * @param factory Creates actors of the species, or null.
+     * @param food The species it eats.
+     */
+    private Species(String name, int kind, boolean nocturnal, ActorFactory factory, Species... food)
+    {
+        if(table.size() + 1 >= MAX_SPECIES) {
+            throw new IllegalStateException("There are too many species.");
+        }
+        this.name = name;
+        this.kind = kind;
+        this.nocturnal = nocturnal;
+        this.factory = factory;
+        for(Species species : food) {
+            diet[species.id] = true;
+        }
+        table.add(this);
+        id = table.size();
+    }
+
+    /**
+     * Define a new species of animal. Species must be defined before
+     * any SimulationParameters or Simulator is created, and the new
+     * species' life history and creation probability then set in the
+     * parameters, where they start at zero.
+     * @param name The name of the species, e.g. "Mouse".
+     * @param kind KIND_PREY or KIND_PREDATOR.
+     * @param nocturnal Whether the species acts at night.
+     * @param food The species it eats.
+     * @return The new species.
+     * @throws IllegalArgumentException If the kind is not an animal.
+     * @throws IllegalStateException If 63 species are already defined.
+     */
+    public static Species define(String name, int kind, boolean nocturnal, Species... food)
+    {
+        if(kind != KIND_PREY && kind != KIND_PREDATOR) {
+            throw new IllegalArgumentException(name + " must be prey or a predator.");
+        }
+        return new Species(name, kind, nocturnal, Animal::new, food);
+    }
+
+    /**
+     * @return The name of the species.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return The kind of species, one of the KIND constants.
+     */
+    public int getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * @return The id of the species.
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return true if the species acts at night, false if by day.
+     */
+    public boolean isNocturnal()
+    {
+        return nocturnal;
+    }
+
+    /**
+     * Check whether this species eats another by default. A
+     * simulation's own diets are held by its parameters.
+     * @param id The id of the other species, or 0 for none.
+     * @return true if this species eats it by default.
+     */
+    public boolean eats(int id)
+    {
+        return diet[id];
+    }
+
+    /**
+     * Return the tag stored in a field cell holding this species.
+     * The kind is held above the id so either can be extracted
+     * with a shift or a mask.
+     * @return The cell tag for the species.
+     */
+    public int getTag()
+    {
+        return (kind << ID_BITS) | id;
+    }
+
+    /**
+     * Create an actor of this species and place it in the field.
+     * @param randomAge Whether the actor starts with a random age.
+     * @param field The field to place it in.
+     * @param location Where to place it.
+     * @return The new actor.
+     * @throws IllegalStateException If the species has no actors.
+     */
+    public Actor createActor(boolean randomAge, Field field, Location location)
+    {
+        if(factory == null) {
+            throw new IllegalStateException(name + " has no actors.");
+        }
+        return factory.create(this, randomAge, field, location);
+    }
+
+    /**
+     * Extract the kind from a cell tag.
+     * @param tag A cell tag.
+     * @return The kind of species, or KIND_OTHER for an empty cell.
+     */
+    public static int kindOf(int tag)
+    {
+        return tag >>> ID_BITS;
+    }
+
+    /**
+     * Extract the species id from a cell tag.
+     * @param tag A cell tag.
+     * @return The species id, or 0 for an empty cell.
+     */
+    public static int idOf(int tag)
+    {
+        return tag & ((1 << ID_BITS) - 1);
+    }
+
+    /**
+     * Look up a species by its id.
+     * @param id The id of the species.
+     * @return The species with that id.
+     */
+    public static Species byId(int id)
+    {
+        return table.get(id - 1);
+    }
+
+    /**
+     * @return The number of species in the table.
+     */
+    public static int count()
+    {
+        return table.size();
+    }
+
+    /**
+     * @return The name of the species.
+     */
+    public String toString()
+    {
+        return name;
+    }
+}
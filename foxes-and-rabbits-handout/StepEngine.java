@@ -0,0 +1,25 @@
+import java.util.List;
+
+/**
+ * A way of letting a group of actors take their turn in a step.
+ * The simulator hands each group that can act to its engine and
+ * sweeps out the dead afterwards.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public interface StepEngine
+{
+    /**
+     * Let every live actor in a group act once.
+     * @param group The actors to act.
+     * @param field The field the actors are in.
+     * @param newActors A list to receive newly born actors.
+     * @param seed The seed of the group's turn. Each actor's random
+     *             stream is derived from it and the actor's cell.
+     * @param metrics The step's metrics. While they are timing, each
+     *                actor's turn is to be taken through timeAct.
+     */
+    void act(ActorRegistry group, Field field, List<Actor> newActors, long seed,
+             StepMetrics metrics);
+}
@@ -0,0 +1,362 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time and memory of each step of a simulation go. When
+ * enabled, each phase of a step is timed, with the bytes allocated
+ * by the simulating thread during it, and each actor's turn is timed
+ * and its allocation counted by species. The figures of the last
+ * steps are kept in rolling windows, from which quantiles such as
+ * the median and the 99th percentile can be read at any time, from
+ * any thread.
+ *
+ * The phase figures are wall time and allocation on the simulating
+ * thread. The species figures are summed over every thread that ran
+ * actors, so with a ParallelStepEngine they add up to more than the
+ * ACTORS phase took. A species' figures for a step are only recorded
+ * if it acted in that step.
+ *
+ * When disabled, as it is to begin with, each call made during a
+ * step returns after a single check. Enabling or disabling takes
+ * effect from the next step.
+ *
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public class StepMetrics
+{
+    // The number of steps kept by default.
+    private static final int DEFAULT_WINDOW = 1000;
+    // Counts the bytes each thread allocates, or null if it cannot.
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private static final StepPhase[] PHASES = StepPhase.values();
+
+    // The number of steps kept.
+    private final int window;
+    // Whether the next step is to be measured.
+    private volatile boolean enabled;
+    // Whether the current step is being measured.
+    private boolean timing;
+
+    // The time and allocation count when the current phase began.
+    private long phaseStart;
+    private long phaseAllocated;
+    // The time and bytes of each phase so far in the current step.
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final long[] phaseBytes = new long[PHASES.length];
+    // The recent figures of each phase.
+    private final RollingWindow[] phaseTimes = new RollingWindow[PHASES.length];
+    private final RollingWindow[] phaseAllocations = new RollingWindow[PHASES.length];
+
+    // The turns, time and bytes of each species so far in the current
+    // step, indexed by species id and added to from any thread.
+    private LongAdder[] speciesActs = new LongAdder[0];
+    private LongAdder[] speciesNanos = new LongAdder[0];
+    private LongAdder[] speciesBytes = new LongAdder[0];
+    // The recent figures of each species, indexed by species id.
+    // They are read from other threads, times before allocations.
+    private volatile RollingWindow[] speciesTimes = new RollingWindow[0];
+    private volatile RollingWindow[] speciesAllocations = new RollingWindow[0];
+
+    /**
+     * Create disabled metrics keeping the last 1000 steps.
+     */
+    public StepMetrics()
+    {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Create disabled metrics.
+     * @param window The number of steps kept. Must be greater than zero.
+     */
+    public StepMetrics(int window)
+    {
+        this.window = window;
+        for(int p = 0; p < PHASES.length; p++) {
+            phaseTimes[p] = new RollingWindow(window);
+            phaseAllocations[p] = new RollingWindow(window);
+        }
+    }
+
+    /**
+     * Start or stop measuring, from the next step.
+     * @param enabled Whether to measure the steps.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return Whether the steps are measured.
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return Whether the current step is being measured, so that a
+     *         step engine should use timeAct for the actors' turns.
+     */
+    public boolean isTiming()
+    {
+        return timing;
+    }
+
+    /**
+     * Start a step, and its first phase.
+     */
+    public void startStep()
+    {
+        timing = enabled;
+        if(!timing) {
+            return;
+        }
+        // Species may have been defined since the last step.
+        ensureSpecies(Species.count() + 1);
+        phaseStart = System.nanoTime();
+        phaseAllocated = allocatedBytes();
+    }
+
+    /**
+     * End a phase of the step, and start the next. A phase may be
+     * ended more than once in a step, and its figures add up.
+     * @param phase The phase that has just run.
+     */
+    public void endPhase(StepPhase phase)
+    {
+        if(!timing) {
+            return;
+        }
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        phaseBytes[phase.ordinal()] += allocated - phaseAllocated;
+        phaseStart = now;
+        phaseAllocated = allocated;
+    }
+
+    /**
+     * Let an actor act, timing its turn and counting what it
+     * allocates against its species. This may be called from any
+     * thread, but only while the step is being measured.
+     * @param actor The actor.
+     * @param newActors A list to receive newly born actors.
+     */
+    public void timeAct(Actor actor, List<Actor> newActors)
+    {
+        int id = actor.getSpecies().getId();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        actor.act(newActors);
+        speciesNanos[id].add(System.nanoTime() - start);
+        speciesBytes[id].add(allocatedBytes() - allocated);
+        speciesActs[id].increment();
+    }
+
+    /**
+     * End the step, adding its figures to the windows.
+     */
+    public void endStep()
+    {
+        if(!timing) {
+            return;
+        }
+        for(int p = 0; p < PHASES.length; p++) {
+            phaseTimes[p].add(phaseNanos[p]);
+            phaseAllocations[p].add(phaseBytes[p]);
+            phaseNanos[p] = 0;
+            phaseBytes[p] = 0;
+        }
+        for(int id = 1; id < speciesActs.length; id++) {
+            if(speciesActs[id].sumThenReset() > 0) {
+                speciesTimes[id].add(speciesNanos[id].sumThenReset());
+                speciesAllocations[id].add(speciesBytes[id].sumThenReset());
+            }
+        }
+        timing = false;
+    }
+
+    /**
+     * Return a quantile of the time a phase took in the recent steps.
+     * @param phase The phase.
+     * @param probability The quantile, such as 0.5 or 0.99.
+     * @return The quantile in nanoseconds, or 0 if none were measured.
+     */
+    public long getTimeQuantile(StepPhase phase, double probability)
+    {
+        return phaseTimes[phase.ordinal()].getQuantile(probability);
+    }
+
+    /**
+     * Return a quantile of the bytes the simulating thread allocated
+     * during a phase in the recent steps.
+     * @param phase The phase.
+     * @param probability The quantile, such as 0.5 or 0.99.
+     * @return The quantile in bytes, or 0 if none were measured.
+     */
+    public long getAllocationQuantile(StepPhase phase, double probability)
+    {
+        return phaseAllocations[phase.ordinal()].getQuantile(probability);
+    }
+
+    /**
+     * Return a quantile of the time a species' turns took in total in
+     * the recent steps in which it acted.
+     * @param species The species.
+     * @param probability The quantile, such as 0.5 or 0.99.
+     * @return The quantile in nanoseconds, or 0 if none were measured.
+     */
+    public long getActTimeQuantile(Species species, double probability)
+    {
+        RollingWindow times = speciesWindow(speciesTimes, species);
+        return times == null ? 0 : times.getQuantile(probability);
+    }
+
+    /**
+     * Return a quantile of the bytes a species' turns allocated in
+     * total in the recent steps in which it acted.
+     * @param species The species.
+     * @param probability The quantile, such as 0.5 or 0.99.
+     * @return The quantile in bytes, or 0 if none were measured.
+     */
+    public long getActAllocationQuantile(Species species, double probability)
+    {
+        RollingWindow allocations = speciesWindow(speciesAllocations, species);
+        return allocations == null ? 0 : allocations.getQuantile(probability);
+    }
+
+    /**
+     * @return The number of measured steps in the windows.
+     */
+    public int getStepCount()
+    {
+        return phaseTimes[0].size();
+    }
+
+    /**
+     * Forget every measured step.
+     */
+    public void clear()
+    {
+        for(int p = 0; p < PHASES.length; p++) {
+            phaseTimes[p].clear();
+            phaseAllocations[p].clear();
+        }
+        RollingWindow[] times = speciesTimes;
+        RollingWindow[] allocations = speciesAllocations;
+        for(int id = 1; id < times.length; id++) {
+            times[id].clear();
+            allocations[id].clear();
+        }
+    }
+
+    /**
+     * Describe the median and 99th percentile of each phase and each
+     * species' turns, in microseconds and kilobytes.
+     * @return The description, a line for each phase and species.
+     */
+    public String getSummary()
+    {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-14s %10s %10s %10s %10s%n",
+                                     "", "p50 us", "p99 us", "p50 KB", "p99 KB"));
+        for(StepPhase phase : PHASES) {
+            appendLine(summary, phase.name(), phaseTimes[phase.ordinal()],
+                       phaseAllocations[phase.ordinal()]);
+        }
+        RollingWindow[] times = speciesTimes;
+        RollingWindow[] allocations = speciesAllocations;
+        for(int id = 1; id < times.length; id++) {
+            if(times[id].size() > 0) {
+                appendLine(summary, Species.byId(id).getName(), times[id], allocations[id]);
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Add a line of the summary.
+     */
+    private static void appendLine(StringBuilder summary, String name,
+                                   RollingWindow times, RollingWindow allocations)
+    {
+        summary.append(String.format("%-14s %10.1f %10.1f %10.1f %10.1f%n", name,
+                                     times.getQuantile(0.5) / 1e3,
+                                     times.getQuantile(0.99) / 1e3,
+                                     allocations.getQuantile(0.5) / 1024.0,
+                                     allocations.getQuantile(0.99) / 1024.0));
+    }
+
+    /**
+     * Make room for the figures of species ids below the given size.
+     * Only called between steps, when no actor is being timed.
+     * @param size One more than the highest species id.
+     */
+    private void ensureSpecies(int size)
+    {
+        int old = speciesActs.length;
+        if(size <= old) {
+            return;
+        }
+        LongAdder[] acts = Arrays.copyOf(speciesActs, size);
+        LongAdder[] nanos = Arrays.copyOf(speciesNanos, size);
+        LongAdder[] bytes = Arrays.copyOf(speciesBytes, size);
+        RollingWindow[] times = Arrays.copyOf(speciesTimes, size);
+        RollingWindow[] allocations = Arrays.copyOf(speciesAllocations, size);
+        for(int id = old; id < size; id++) {
+            acts[id] = new LongAdder();
+            nanos[id] = new LongAdder();
+            bytes[id] = new LongAdder();
+            times[id] = new RollingWindow(window);
+            allocations[id] = new RollingWindow(window);
+        }
+        speciesActs = acts;
+        speciesNanos = nanos;
+        speciesBytes = bytes;
+        // Set times last, so a reader that sees them sees the rest.
+        speciesAllocations = allocations;
+        speciesTimes = times;
+    }
+
+    /**
+     * @return A species' window, or null if it has never been measured.
+     */
+    private static RollingWindow speciesWindow(RollingWindow[] windows, Species species)
+    {
+        int id = species.getId();
+        return id < windows.length ? windows[id] : null;
+    }
+
+    /**
+     * @return The bytes allocated so far by the current thread, or 0
+     *         if they cannot be counted.
+     */
+    private static long allocatedBytes()
+    {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @return The bean counting each thread's allocation, switched
+     *         on, or null if the JVM cannot count it.
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter()
+    {
+        if(!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * The phases of a step of the simulation, in the order they run, as
+ * timed by StepMetrics. ACTORS is every group's actors taking their
+ * turn and DEAD_REMOVAL is sweeping the dead out of the groups
+ * afterwards. BIRTH_MERGE adds the actors born in the step to their
+ * groups, and VIEW_UPDATE tells the observers about the step.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public enum StepPhase
+{
+    DAY_NIGHT, WEATHER, PLANT_REGROWTH, ACTORS, DEAD_REMOVAL, BIRTH_MERGE, VIEW_UPDATE;
+}
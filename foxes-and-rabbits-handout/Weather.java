@@ -1,10 +1,12 @@
-import java.util.List;
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Random;
-import java.util.Stack;
 
 /**
  * A class representing the weather system of the simulation.
+ * Past weather is remembered in a ring buffer of fixed depth, so the
+ * weather takes the same memory however long the simulation runs.
  * 
  * @author Benedict Morley and Laurence Andrews
  * @version (2)
@@ -12,32 +14,65 @@ import java.util.Stack;
 public class Weather
 
 {
+    // The number of past days remembered by default.
+    private static final int DEFAULT_HISTORY_DEPTH = 8;
 
-    // A stack to keep track of past weathers
-    public Stack<String> weatherRecord;
-    
-    private Random rand;
-    
-    public double stateProbability;
+    // The probabilities of fog and of rain. Sun fills the rest.
+    private SimulationParameters parameters;
 
-    // The probability that fog will occur.
-    private static final double FOG_PROBABILITY = 0.1;
+    // A ring buffer of past weathers, overwriting the oldest.
+    private WeatherState[] weatherRecord;
 
-    // The probability that rain will occur.
-    private static final double RAIN_PROBABILITY = 0.3;
+    // The position of the latest weather in the record.
+    private int latest;
 
-    // The probability that sun will occur.
-    private static final double SUN_PROBABILITY = 1;
+    // How many entries of the record have been filled.
+    private int recorded;
     
+    public double stateProbability;
 
     /**
-     * Construct a weather system. The initial state of the simulation 
-     * is "sun".
+     * Construct a weather system remembering the default number of
+     * days. The initial state of the simulation is sun.
      */
     public Weather()
     { 
-        weatherRecord = new Stack<String>();
-        weatherRecord.push("Sun");
+        this(DEFAULT_HISTORY_DEPTH, new SimulationParameters());
+    }
+
+    /**
+     * Construct a weather system remembering the default number of
+     * days, with the fog and rain probabilities of the given
+     * parameters. The initial state of the simulation is sun.
+     * @param parameters The parameters of the simulation.
+     */
+    public Weather(SimulationParameters parameters)
+    {
+        this(DEFAULT_HISTORY_DEPTH, parameters);
+    }
+
+    /**
+     * Construct a weather system remembering the given number of
+     * days. The initial state of the simulation is sun.
+     * @param historyDepth The number of days to remember, at least 2.
+     */
+    public Weather(int historyDepth)
+    {
+        this(historyDepth, new SimulationParameters());
+    }
+
+    /**
+     * Construct a weather system remembering the given number of
+     * days, with the fog and rain probabilities of the given
+     * parameters. The initial state of the simulation is sun.
+     * @param historyDepth The number of days to remember, at least 2.
+     * @param parameters The parameters of the simulation.
+     */
+    public Weather(int historyDepth, SimulationParameters parameters)
+    {
+        this.parameters = parameters;
+        weatherRecord = new WeatherState[Math.max(historyDepth, 2)];
+        reset();
     }
 
     /**
@@ -46,53 +81,126 @@ public class Weather
      */
     public void setWeatherState()
     {
-        rand = Randomizer.getRandom();
+        Random rand = Randomizer.getRandom();
         stateProbability = rand.nextDouble();
-        if (stateProbability < FOG_PROBABILITY) {
-            weatherRecord.push("Fog");
-        } else if (stateProbability < RAIN_PROBABILITY) {
-            weatherRecord.push("Rain");
+        double fogProbability = parameters.getFogProbability();
+        if (stateProbability < fogProbability) {
+            record(WeatherState.FOG);
+        } else if (stateProbability < fogProbability + parameters.getRainProbability()) {
+            record(WeatherState.RAIN);
         } else {
-            weatherRecord.push("Sun");
+            record(WeatherState.SUN);
         }
     }
 
     /**
-     * Check the top entity of the stack of past weathers.
+     * Check the latest weather recorded.
      * @return The latest weather to occur.
      */
-    protected String checkLastWeather()
+    protected WeatherState checkLastWeather()
     {
-        String weatherCheck = weatherRecord.peek();
-        return weatherCheck;
+        return weatherRecord[latest];
     }
 
     /**
-     * Check the past weather, if it is sunny then pop that from 
-     * the top of the stack and check the next weather then push 
-     * the current weather back again.
-     * @return The past two days weather as a concatenated string.
+     * Look up the weather some days ago.
+     * @param daysAgo How many days back to look, 0 for today.
+     * @return The weather on that day, or null if it is further
+     *         back than is remembered.
      */
-    protected String twoDayReport()
+    protected WeatherState getWeather(int daysAgo)
     {
-        String today = checkLastWeather();
-        String yesterday = "";
-        if (today.equals("Sun")) {
-            weatherRecord.pop();
-            yesterday = checkLastWeather();
-            weatherRecord.push(today);
+        if (daysAgo < 0 || daysAgo >= recorded) {
+            return null;
+        }
+        int index = latest - daysAgo;
+        if (index < 0) {
+            index += weatherRecord.length;
         }
+        return weatherRecord[index];
+    }
+
+    /**
+     * Check the weather of the past two days.
+     * @param yesterday The weather expected yesterday.
+     * @param today The weather expected today.
+     * @return true if the last two days had that weather.
+     */
+    protected boolean twoDayReport(WeatherState yesterday, WeatherState today)
+    {
+        return getWeather(0) == today && getWeather(1) == yesterday;
+    }
 
-        return (yesterday + today);
+    /**
+     * Check whether the last few days had the weather given by a
+     * pattern. The pattern is given oldest day first, ending with
+     * today, and may be no longer than the remembered history.
+     * @param pattern The weather expected on each day.
+     * @return true if the latest days match the pattern.
+     */
+    protected boolean matchesHistory(WeatherState[] pattern)
+    {
+        int last = pattern.length - 1;
+        for (int day = 0; day <= last; day++) {
+            if (getWeather(day) != pattern[last - day]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Reset the stack of weathers by popping all current values
-     * within it.
+     * Forget all past weather and return to the initial state of sun.
      */
     protected void reset() {
-        while (weatherRecord.empty() == false) {
-            weatherRecord.pop();
+        latest = 0;
+        recorded = 0;
+        record(WeatherState.SUN);
+    }
+
+    /**
+     * Record a new day's weather, overwriting the oldest day if the
+     * record is full.
+     * @param state The new weather.
+     */
+    private void record(WeatherState state)
+    {
+        if (recorded > 0) {
+            latest = (latest + 1) % weatherRecord.length;
+        }
+        weatherRecord[latest] = state;
+        if (recorded < weatherRecord.length) {
+            recorded++;
+        }
+    }
+
+    /**
+     * Write the remembered weather, oldest first, so it can be saved
+     * in a checkpoint.
+     * @param out Where to write the weather.
+     * @throws IOException If the weather cannot be written.
+     */
+    public void writeState(DataOutput out) throws IOException
+    {
+        out.writeInt(recorded);
+        for (int daysAgo = recorded - 1; daysAgo >= 0; daysAgo--) {
+            out.writeByte(getWeather(daysAgo).ordinal());
+        }
+    }
+
+    /**
+     * Replace the remembered weather with that written by writeState.
+     * @param in Where to read the weather from.
+     * @throws IOException If the weather cannot be read.
+     */
+    public void readState(DataInput in) throws IOException
+    {
+        WeatherState[] states = WeatherState.values();
+        int count = in.readInt();
+        latest = 0;
+        recorded = 0;
+        for (int day = 0; day < count; day++) {
+            record(states[in.readByte()]);
         }
     }
 
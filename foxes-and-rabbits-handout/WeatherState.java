@@ -0,0 +1,29 @@
+/**
+ * The possible states of the weather in the simulation.
+ * 
+ * @author Benedict Morley and Laurence Andrews
+ * @version (2)
+ */
+public enum WeatherState
+{
+    SUN("Sun"), RAIN("Rain"), FOG("Fog");
+
+    // The name shown for the weather.
+    private final String name;
+
+    /**
+     * @param name The name shown for the weather.
+     */
+    private WeatherState(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return The name shown for the weather, e.g. "Sun".
+     */
+    public String toString()
+    {
+        return name;
+    }
+}